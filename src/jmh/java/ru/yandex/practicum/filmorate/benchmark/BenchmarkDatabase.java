@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * Отдельная база H2 со схемой и справочниками приложения для одного прогона бенчмарка;
+ * по умолчанию in-memory с пулом Hikari и шаблоном в настройках по умолчанию.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+    private final HikariDataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public BenchmarkDatabase() {
+        this("jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", 10);
+    }
+
+    public BenchmarkDatabase(String jdbcUrl, int maximumPoolSize) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        // только миграции приложения: схема и справочники, без тестовых данных
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public NamedParameterJdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    @Override
+    public void close() {
+        jdbc.getJdbcTemplate().execute("SHUTDOWN");
+        dataSource.close();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сравнивает два JSON-отчёта JMH (например, с двух коммитов) и печатает изменение каждого замера.
+ * Изменение помечается, если разница больше суммы погрешностей обоих замеров.
+ * Запуск: {@code mvn -Pjmh test-compile exec:exec@jmh-diff -Djmh.baseline=old.json -Djmh.result=new.json}.
+ */
+public class BenchmarkDiff {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Использование: BenchmarkDiff <базовый.json> <текущий.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s -> %14.3f %s%n", entry.getKey(), "-", score(after), unit(after));
+                continue;
+            }
+            double change = (score(after) - score(before)) / score(before) * 100;
+            boolean significant = Math.abs(score(after) - score(before)) > error(before) + error(after);
+            // для времени на операцию рост плох, для пропускной способности — падение
+            boolean worse = unit(after).endsWith("/op") ? change > 0 : change < 0;
+            String mark = !significant ? "" : worse ? "  РЕГРЕССИЯ" : "  улучшение";
+            if (significant && worse) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f -> %14.3f %s %+7.1f%%%s%n", entry.getKey(), score(before), score(after),
+                    unit(after), change, mark);
+        }
+        System.out.printf("Регрессий: %d%n", regressions);
+    }
+
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            Map<String, String> params = new LinkedHashMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String benchmark = result.get("benchmark").asText();
+            results.put(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1)
+                    + (params.isEmpty() ? "" : " " + params), result.get("primaryMetric"));
+        }
+        return results;
+    }
+
+    private static double score(JsonNode metric) {
+        return metric.get("score").asDouble();
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String unit(JsonNode metric) {
+        return metric.get("scoreUnit").asText();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка несколькими потоками на файловую базу H2 с пулом Hikari по умолчанию и из профиля prod
+ * (application-prod.properties): пропускная способность чтения фильма, популярных фильмов и поиска.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class DataSourceProfileBenchmark {
+    private static final long SEED = 42;
+    private static final int LIKE_COUNT = 100_000;
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private Path directory;
+    private BenchmarkDatabase database;
+    private JdbcFilmRepository filmRepository;
+    private int filmCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-bench");
+        String url = "jdbc:h2:file:" + directory.resolve("filmorate");
+        database = new BenchmarkDatabase(url, profile.equals("prod") ? 16 : 10);
+        NamedParameterJdbcTemplate jdbc = database.jdbc();
+        filmCount = new DatasetGenerator(database.dataSource(), SEED).generate(Scale.ofLikes(LIKE_COUNT)).films();
+        FilmRowMapper filmRowMapper = new FilmRowMapper();
+        filmRepository = new JdbcFilmRepository(jdbc, filmRowMapper, new FilmExtractor(filmRowMapper));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<Film> getFilmById() {
+        return filmRepository.getFilmById(ThreadLocalRandom.current().nextLong(1, filmCount + 1));
+    }
+
+    @Benchmark
+    public Collection<Film> getPopularFilms() {
+        return filmRepository.getPopularFilms(10, null, 2999);
+    }
+
+    @Benchmark
+    public Collection<Film> searchFilmsByTitle() {
+        return filmRepository.getResultSearchForFilmsByTitle(" " + ThreadLocalRandom.current().nextInt(10, 100));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcDirectorRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcGenreRepository;
+import ru.yandex.practicum.filmorate.mappers.DirectorRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка фильма одним запросом через {@link FilmExtractor} против прежнего пути:
+ * плоская строка через {@link FilmRowMapper} и отдельные запросы за жанрами и режиссёрами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmAggregateBenchmark {
+    private static final String LEGACY_FIND_ALL_FILMS_QUERY = """
+            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+            FROM films f
+            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
+            ORDER BY f.film_id
+            """;
+    private static final String LEGACY_FIND_FILM_BY_ID_QUERY = """
+            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+            FROM films f
+            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
+            WHERE f.film_id = :filmId
+            """;
+
+    @Param({"1000", "10000"})
+    private int filmCount;
+
+    private BenchmarkDatabase database;
+    private NamedParameterJdbcTemplate jdbc;
+    private JdbcFilmRepository filmRepository;
+    private JdbcGenreRepository genreRepository;
+    private JdbcDirectorRepository directorRepository;
+    private final FilmRowMapper filmRowMapper = new FilmRowMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        jdbc = database.jdbc();
+        genreRepository = new JdbcGenreRepository(jdbc, new GenreRowMapper());
+        directorRepository = new JdbcDirectorRepository(jdbc, new DirectorRowMapper());
+        filmRepository = new JdbcFilmRepository(jdbc, filmRowMapper, new FilmExtractor(filmRowMapper));
+        jdbc.getJdbcTemplate().execute("INSERT INTO directors (name) SELECT 'Director ' || x FROM SYSTEM_RANGE(1, 50)");
+        jdbc.getJdbcTemplate().execute("""
+                INSERT INTO films (name, description, release_date, duration, mpa_id)
+                SELECT 'Film ' || x, 'Description ' || x, DATEADD('DAY', x, DATE '1990-01-01'), 90 + MOD(x, 60),
+                       1 + MOD(x, 5)
+                FROM SYSTEM_RANGE(1, %d)
+                """.formatted(filmCount));
+        jdbc.getJdbcTemplate().execute("""
+                INSERT INTO film_genre (film_id, genre_id)
+                SELECT film_id, 1 + MOD(film_id, 6) FROM films
+                UNION ALL
+                SELECT film_id, 1 + MOD(film_id + 3, 6) FROM films
+                """);
+        jdbc.getJdbcTemplate().execute("""
+                INSERT INTO film_directors (film_id, director_id)
+                SELECT film_id, 1 + MOD(film_id, 50) FROM films
+                """);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<Film> findFilmByIdAggregate() {
+        return filmRepository.getFilmById(randomFilmId());
+    }
+
+    @Benchmark
+    public Optional<Film> findFilmByIdLegacy() {
+        long filmId = randomFilmId();
+        List<Film> films = jdbc.query(LEGACY_FIND_FILM_BY_ID_QUERY, Map.of("filmId", filmId), filmRowMapper);
+        return films.stream().findFirst().map(film -> {
+            film.setGenres(genreRepository.findGenreByFilmId(filmId));
+            film.setDirectors(directorRepository.findDirectorByFilmId(filmId));
+            return film;
+        });
+    }
+
+    @Benchmark
+    public List<Film> findAllFilmsAggregate() {
+        return filmRepository.findAllFilms();
+    }
+
+    @Benchmark
+    public List<Film> findAllFilmsLegacy() {
+        List<Film> films = jdbc.query(LEGACY_FIND_ALL_FILMS_QUERY, Map.of(), filmRowMapper);
+        for (Film film : films) {
+            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
+            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
+        }
+        return films;
+    }
+
+    private long randomFilmId() {
+        return ThreadLocalRandom.current().nextLong(1, filmCount + 1);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первый лайк фильма и его отмена: переход между корзиной без лайков, где лежит почти весь каталог,
+ * и корзиной с одним лайком во всех рейтингах фильма (все фильмы, год, жанры).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PopularityIndexBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    private int filmCount;
+
+    private PopularityIndex popularityIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // база не нужна: индекс наполняется через putFilm
+        popularityIndex = new PopularityIndex(null);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long filmId = 1; filmId <= filmCount; filmId++) {
+            popularityIndex.putFilm(Film.builder().id(filmId)
+                    .releaseDate(LocalDate.of(1990 + random.nextInt(35), 1, 1))
+                    .genres(Set.of(Genre.builder().id(1L + random.nextInt(6)).build()))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Long> firstLikeAndRemoval() {
+        long filmId = ThreadLocalRandom.current().nextLong(1, filmCount + 1);
+        popularityIndex.likeAdded(filmId);
+        popularityIndex.likeRemoved(filmId);
+        return popularityIndex.getTopFilmIds(1, null, PopularityIndex.ANY_YEAR);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcLikeRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcUserRepository;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine;
+import ru.yandex.practicum.filmorate.index.RecommendationMode;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.UserRowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рекомендации из матрицы лайков в памяти против SQL-запроса с вложенными подзапросами.
+ * Данные из {@link DatasetGenerator}: в среднем 50 лайков на пользователя, фильмов в 2,5 раза больше,
+ * чем пользователей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RecommendationBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    private int likeCount;
+
+    private BenchmarkDatabase database;
+    private JdbcUserRepository userRepository;
+    private JdbcFilmRepository filmRepository;
+    private RecommendationEngine recommendationEngine;
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        NamedParameterJdbcTemplate jdbc = database.jdbc();
+        userCount = new DatasetGenerator(database.dataSource(), SEED).generate(Scale.ofLikes(likeCount)).users();
+
+        FilmRowMapper filmRowMapper = new FilmRowMapper();
+        userRepository = new JdbcUserRepository(jdbc, new UserRowMapper(), new FilmExtractor(filmRowMapper));
+        filmRepository = new JdbcFilmRepository(jdbc, filmRowMapper, new FilmExtractor(filmRowMapper));
+        recommendationEngine = new RecommendationEngine(new JdbcLikeRepository(jdbc), "exact", 32, 2);
+        recommendationEngine.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Collection<Film> recommendSql() {
+        return userRepository.getUserRecommendations(randomUserId());
+    }
+
+    @Benchmark
+    public List<Film> recommendInMemory() {
+        return filmRepository.findFilmsByIds(recommendationEngine.recommend(randomUserId()));
+    }
+
+    @Benchmark
+    public List<Long> recommendInMemoryIdsOnly() {
+        return recommendationEngine.recommend(randomUserId());
+    }
+
+    @Benchmark
+    public List<Long> recommendApproximateIdsOnly() {
+        return recommendationEngine.recommend(randomUserId(), RecommendationMode.APPROXIMATE).filmIds();
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, userCount + 1);
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcEventRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFriendRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcUserRepository;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+import ru.yandex.practicum.filmorate.mappers.EventRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.UserRowMapper;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути репозиториев на синтетических данных трёх масштабов из {@link DatasetGenerator}:
+ * {@code rows} — число лайков и событий ленты, остальные таблицы в пропорциях {@link Scale#ofLikes}.
+ * Результаты пишутся в JSON ({@code -Djmh.result=...}) и сравниваются между коммитами {@link BenchmarkDiff}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private JdbcFilmRepository filmRepository;
+    private JdbcUserRepository userRepository;
+    private JdbcFriendRepository friendRepository;
+    private JdbcEventRepository eventRepository;
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        NamedParameterJdbcTemplate jdbc = database.jdbc();
+        userCount = new DatasetGenerator(database.dataSource(), SEED).generate(Scale.ofLikes(rows)).users();
+
+        FilmRowMapper filmRowMapper = new FilmRowMapper();
+        UserRowMapper userRowMapper = new UserRowMapper();
+        filmRepository = new JdbcFilmRepository(jdbc, filmRowMapper, new FilmExtractor(filmRowMapper));
+        userRepository = new JdbcUserRepository(jdbc, userRowMapper, new FilmExtractor(filmRowMapper));
+        friendRepository = new JdbcFriendRepository(jdbc, userRowMapper);
+        eventRepository = new JdbcEventRepository(jdbc, new EventRowMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Collection<Film> getPopularFilms() {
+        return filmRepository.getPopularFilms(10, null, 2999);
+    }
+
+    @Benchmark
+    public Collection<Film> getPopularFilmsOfGenre() {
+        return filmRepository.getPopularFilms(10, ThreadLocalRandom.current().nextLong(1, 7), 2999);
+    }
+
+    @Benchmark
+    public List<Film> findAllFilms() {
+        return filmRepository.findAllFilms();
+    }
+
+    @Benchmark
+    public Collection<Film> getCommonFilmsWithFriend() {
+        return filmRepository.getCommonFilmsWithFriend(randomUserId(), randomUserId());
+    }
+
+    @Benchmark
+    public Collection<Film> searchFilmsByTitle() {
+        return filmRepository.getResultSearchForFilmsByTitle(randomQuery());
+    }
+
+    @Benchmark
+    public Collection<Film> searchFilmsByDirector() {
+        return filmRepository.getResultSearchForFilmsByDirector(randomQuery());
+    }
+
+    @Benchmark
+    public Collection<Film> searchFilmsByTitleAndDirector() {
+        return filmRepository.getResultSearchForFilmsByDirectorAndTitle(randomQuery());
+    }
+
+    @Benchmark
+    public Collection<Film> getUserRecommendations() {
+        return userRepository.getUserRecommendations(randomUserId());
+    }
+
+    @Benchmark
+    public List<User> getCommonFriends() {
+        return friendRepository.getCommonFriends(randomUserId(), randomUserId());
+    }
+
+    @Benchmark
+    public Collection<Event> getEventListByUserId() {
+        return eventRepository.getEventListByUserId(randomUserId());
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, userCount + 1);
+    }
+
+    // двузначный номер встречается в названиях многих фильмов и режиссёров, но не всех
+    private static String randomQuery() {
+        return " " + ThreadLocalRandom.current().nextInt(10, 100);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Сколько SQL-запросов к базе может сделать обработчик HTTP-запроса. Без аннотации действует
+ * {@code filmorate.sql-budget.default}. Число не должно зависеть от объёма данных: рост счёта
+ * вместе с числом строк в ответе — это N+1.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    int value();
+}
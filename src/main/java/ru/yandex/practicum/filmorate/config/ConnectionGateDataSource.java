@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пускает к пулу Hikari не больше потоков, чем в нём соединений; остальные ждут в честной очереди семафора.
+ * Возвращая соединение, Hikari вызывает {@code Thread.yield()}, пока кто-то другой в этот момент берёт
+ * соединение. Виртуальный поток после такого yield ставится во внешнюю очередь планировщика, а JDK 21
+ * под непрерывной нагрузкой её не разбирает, и запрос стоит до спада нагрузки. Поэтому выдача и возврат
+ * соединения идут под одной блокировкой, а разрешение возвращается после {@code close()}: получивший его
+ * поток всегда находит в пуле свободное соединение, и при возврате в Hikari никто не ждёт.
+ */
+public class ConnectionGateDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final ReentrantLock poolLock = new ReentrantLock();
+    private final long timeoutMillis;
+
+    public ConnectionGateDataSource(HikariDataSource dataSource) {
+        super(dataSource);
+        this.permits = new Semaphore(dataSource.getMaximumPoolSize(), true);
+        this.timeoutMillis = dataSource.getConnectionTimeout();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        poolLock.lock();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        poolLock.lock();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Соединение с базой не получено за " + timeoutMillis + " мс");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения с базой прервано", e);
+        }
+    }
+
+    private Connection gated(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("close")) {
+                        return invoke(connection, method, args);
+                    }
+                    poolLock.lock();
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        poolLock.unlock();
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.Strategy;
+
+@Configuration
+public class LogbookConfig {
+
+    /**
+     * Стратегия {@code logbook.strategy=sampled}: ошибки со статусом от {@code logbook.minimum-status}
+     * журналируются все, успешные ответы — доля {@code filmorate.logbook.sample-rate}. Остальные значения
+     * {@code logbook.strategy} обслуживают стратегии самого Logbook.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "logbook.strategy", havingValue = "sampled")
+    public Strategy sampledSuccessStrategy(@Value("${logbook.minimum-status:400}") int minimumStatus,
+                                           @Value("${filmorate.logbook.sample-rate:1.0}") double sampleRate) {
+        return new SampledSuccessStrategy(minimumStatus, sampleRate);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ответы со статусом не ниже {@code minimumStatus} попадают в журнал всегда и вместе с телами,
+ * успешные — только доля {@code sampleRate} и без тел. Решение принимается по ответу, поэтому запрос
+ * пишется в журнал вместе с ответом, а не при поступлении.
+ */
+final class SampledSuccessStrategy implements Strategy {
+    private final int minimumStatus;
+    private final double sampleRate;
+
+    SampledSuccessStrategy(int minimumStatus, double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Доля журналируемых запросов должна быть от 0 до 1");
+        }
+        this.minimumStatus = minimumStatus;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) {
+        // статус ещё неизвестен: запрос пишется вместе с ответом
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        return isError(response) ? response.withBody() : response.withoutBody();
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        if (isError(response)) {
+            sink.writeBoth(correlation, request, response);
+        } else if (sampled()) {
+            sink.writeBoth(correlation, request.withoutBody(), response.withoutBody());
+        }
+    }
+
+    boolean sampled() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean isError(HttpResponse response) {
+        return response.getStatus() >= minimumStatus;
+    }
+}
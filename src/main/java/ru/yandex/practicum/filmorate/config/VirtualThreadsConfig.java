@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * Ставит {@link ConnectionGateDataSource} перед пулом Hikari. Выполняется раньше обёртки,
+     * считающей SQL-запросы, чтобы та видела пул уже за семафором; порядок Spring узнаёт
+     * по объявленному типу фабричного метода, поэтому он возвращает сам класс обработчика.
+     */
+    @Bean
+    public static ConnectionGatePostProcessor connectionGateDataSourcePostProcessor() {
+        return new ConnectionGatePostProcessor();
+    }
+
+    static class ConnectionGatePostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource dataSource) {
+                return new ConnectionGateDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
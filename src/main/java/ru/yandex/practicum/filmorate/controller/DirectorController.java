@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
 import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.service.DirectorService;
 
@@ -17,12 +18,14 @@ public class DirectorController {
     private final DirectorService directorService;
 
     @GetMapping
+    @SqlBudget(1)
     public Collection<Director> findAllDirectors() {
         log.info("Запрос на получение всех режиссеров");
         return directorService.findAllDirectors();
     }
 
     @GetMapping("/{id}")
+    @SqlBudget(2)
     public Director findDirectorById(@PathVariable Long id) {
         log.info("Запрос на получение режиссера с ID: {}", id);
         return directorService.getDirectorById(id);
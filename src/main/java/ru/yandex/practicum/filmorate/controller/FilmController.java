@@ -3,7 +3,12 @@ package ru.yandex.practicum.filmorate.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.service.FilmService;
 import ru.yandex.practicum.filmorate.service.LikeService;
@@ -17,23 +22,46 @@ import java.util.Collection;
 public class FilmController {
     private final FilmService filmService;
     private final LikeService likeService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @GetMapping
+    @SqlBudget(1)
     public Collection<Film> findAllFilms() {
         return filmService.findAllFilms();
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.<Film>stream(filmService::streamAllFilms));
+    }
+
+    @GetMapping(params = "limit")
+    @SqlBudget(1)
+    public CursorPage<Film> findFilmsPage(@RequestParam(required = false) String after, @RequestParam int limit) {
+        return filmService.findFilmsPage(after, limit);
+    }
+
+    @GetMapping(value = "/popular", params = "limit")
+    @SqlBudget(1)
+    public CursorPage<Film> getPopularFilmsPage(@RequestParam(required = false) Long genreId, @RequestParam(required = false, defaultValue = "2999") int year, @RequestParam(required = false) String after, @RequestParam int limit) {
+        return filmService.getTopRatedMoviesPage(genreId, year, after, limit);
+    }
+
     @GetMapping("/popular")
+    @SqlBudget(1)
     public Collection<Film> getPopularFilms(@RequestParam(defaultValue = "100000") int count, @RequestParam(required = false) Long genreId, @RequestParam(required = false, defaultValue = "2999") int year) {
         return filmService.getTopRatedMovies(count, genreId, year);
     }
 
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public Film getFilmById(@PathVariable Long id) {
         return filmService.getFilmById(id);
     }
 
     @GetMapping("/search")
+    @SqlBudget(1)
     public Collection<Film> searchFilms(
             @RequestParam String query,
             @RequestParam String by) {
@@ -69,12 +97,14 @@ public class FilmController {
     }
 
     @GetMapping("/director/{directorId}")
+    @SqlBudget(2)
     public Collection<Film> getFilmsByDirector(@PathVariable Long directorId, @RequestParam(required = false) String sortBy) {
         log.info("Запрос на получение фильмов режиссера ID: {}, сортировка по: {}", directorId, sortBy);
         return filmService.getSortedFilmsByDirector(directorId, sortBy);
     }
 
     @GetMapping("/common")
+    @SqlBudget(1)
     public Collection<Film> getCommonFriendFilms(@RequestParam Long userId, @RequestParam Long friendId) {
         log.info("Запрос на получение общих фильмов между друзьями с ID: {},и {}", userId, friendId);
         return filmService.getTopRatedMoviesAmongFriends(userId, friendId);
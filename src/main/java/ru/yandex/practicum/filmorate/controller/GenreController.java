@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.service.GenreService;
 
@@ -19,12 +20,14 @@ public class GenreController {
     private final GenreService genreService;
 
     @GetMapping
+    @SqlBudget(0)
     public Collection<Genre> getAllGenres() {
         log.info("Попытка получения всех жанров");
         return genreService.findAllGenres();
     }
 
     @GetMapping("/{id}")
+    @SqlBudget(0)
     public Genre getGenreById(@PathVariable Long id) {
         log.info("Попытка получения жанра по ID: {}", id);
         return genreService.findGenreById(id);
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
 import ru.yandex.practicum.filmorate.model.MpaRating;
 import ru.yandex.practicum.filmorate.service.MpaRatingService;
 
@@ -19,12 +20,14 @@ public class MpaController {
     private final MpaRatingService mpaRatingService;
 
     @GetMapping
+    @SqlBudget(0)
     public Collection<MpaRating> getAllMpaRatings() {
         log.info("Попытка получения всех рейтингов MPA");
         return mpaRatingService.findAllMpa();
     }
 
     @GetMapping("/{id}")
+    @SqlBudget(0)
     public MpaRating getMpaById(@PathVariable Long id) {
         log.info("Попытка получения рейтинга MPA по ID: {}", id);
         return mpaRatingService.findMpaById(id);
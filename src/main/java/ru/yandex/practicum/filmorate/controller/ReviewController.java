@@ -4,6 +4,8 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Review;
 import ru.yandex.practicum.filmorate.service.ReviewService;
 
@@ -32,11 +34,19 @@ public class ReviewController {
     }
 
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public Review getReviewById(@PathVariable Long id) {
         return reviewService.getReviewById(id);
     }
 
+    @GetMapping(params = "limit")
+    @SqlBudget(1)
+    public CursorPage<Review> getReviewsPage(@RequestParam(required = false) Long filmId, @RequestParam(required = false) String after, @RequestParam int limit) {
+        return reviewService.getReviewsPage(filmId, after, limit);
+    }
+
     @GetMapping
+    @SqlBudget(1)
     public Collection<Review> getPopularReviews(@RequestParam(required = false)  Long filmId, @RequestParam(defaultValue = "10") int count) {
         return reviewService.getPopularReviews(filmId, count);
     }
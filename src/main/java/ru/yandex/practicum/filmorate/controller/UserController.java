@@ -3,7 +3,12 @@ package ru.yandex.practicum.filmorate.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Event;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
@@ -12,6 +17,7 @@ import ru.yandex.practicum.filmorate.service.FriendService;
 import ru.yandex.practicum.filmorate.service.UserService;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -21,38 +27,75 @@ public class UserController {
     private final UserService userService;
     private final FriendService friendService;
     private final EventService eventService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @GetMapping
+    @SqlBudget(1)
     public Collection<User> findAllUsers() {
         return userService.findAllUsers();
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.<User>stream(userService::streamAllUsers));
+    }
+
+    @GetMapping(params = "limit")
+    @SqlBudget(1)
+    public CursorPage<User> findUsersPage(@RequestParam(required = false) String after, @RequestParam int limit) {
+        return userService.findUsersPage(after, limit);
+    }
+
     @GetMapping("/{userId}/friends")
+    @SqlBudget(2)
     public Collection<User> getFriends(@Valid @PathVariable Long userId) {
         return friendService.getFriends(userId);
     }
 
     @GetMapping("/{userId}/friends/common/{otherId}")
+    @SqlBudget(3)
     public Collection<User> getCommonFriends(@PathVariable Long userId, @PathVariable Long otherId) {
         return friendService.getCommonFriends(userId, otherId);
     }
 
     //event
     @GetMapping("/{userId}/feed")
+    @SqlBudget(3)
     public Collection<Event> getEventList(@Valid @PathVariable Long userId) {
         return eventService.getEventList(userId);
     }
 
+    @GetMapping(value = "/{userId}/feed", params = "limit")
+    @SqlBudget(2)
+    public CursorPage<Event> getEventPage(@PathVariable Long userId, @RequestParam(required = false) String after, @RequestParam int limit) {
+        return eventService.getEventPage(userId, after, limit);
+    }
+
+    @GetMapping("/{userId}/feed/friends")
+    @SqlBudget(3)
+    public List<Event> getFriendsTimeline(@PathVariable Long userId, @RequestParam(defaultValue = "20") int limit) {
+        return eventService.getFriendsTimeline(userId, limit);
+    }
+
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public User getUserById(@PathVariable Long id) {
         return userService.getUserById(id);
     }
 
     @GetMapping("/{id}/recommendations")
+    @SqlBudget(2)
     public Collection<Film> getUserRecommendations(@PathVariable Long id) {
         return userService.getUserRecommendations(id);
     }
 
+    @GetMapping(value = "/{id}/recommendations", params = "mode")
+    @SqlBudget(2)
+    public Collection<Film> getUserRecommendations(@PathVariable Long id, @RequestParam String mode) {
+        return userService.getUserRecommendations(id, mode);
+    }
+
     @PostMapping
     public User createUser(@Valid @RequestBody User user) {
         return userService.createUser(user);
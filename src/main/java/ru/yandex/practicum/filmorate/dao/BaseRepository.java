@@ -12,9 +12,14 @@ import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 @RequiredArgsConstructor
 public class BaseRepository<T> {
+    protected static final int STREAM_PAGE_SIZE = 500;
+
     protected final NamedParameterJdbcOperations jdbc;
     protected final RowMapper<T> mapper;
 
@@ -27,10 +32,31 @@ public class BaseRepository<T> {
         }
     }
 
+    protected boolean exists(String query, Map<String, ?> params) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(query, params, Boolean.class));
+    }
+
     protected List<T> findMany(String query, Map<String, ?> params) {
         return jdbc.query(query, params, mapper);
     }
 
+    /**
+     * Обходит таблицу страницами по первичному ключу: каждый запрос читает индекс по порядку с места,
+     * где остановился предыдущий, и в памяти держится не больше одной страницы.
+     */
+    protected static <E> void forEachPage(BiFunction<Long, Integer, List<E>> pageAfter, ToLongFunction<E> idOf,
+                                          Consumer<E> consumer) {
+        long afterId = 0;
+        List<E> page;
+        do {
+            page = pageAfter.apply(afterId, STREAM_PAGE_SIZE);
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                afterId = idOf.applyAsLong(page.get(page.size() - 1));
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
     protected boolean delete(String query, Map<String, ?> params) {
         int rowsDeleted = jdbc.update(query, params);
         return rowsDeleted > 0;
@@ -47,18 +73,6 @@ public class BaseRepository<T> {
         }
     }
 
-    //event
-    protected void safeInsert(String query, Map<String, ?> params) {
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        jdbc.update(query, new MapSqlParameterSource(params), keyHolder, new String[]{"EVENT_ID"});
-        Number key = keyHolder.getKey();
-        if (key != null) {
-            key.longValue();
-        } else {
-            throw new InternalServerException("Не удалось сохранить данные");
-        }
-    }
-
     protected boolean update(String query, Map<String, ?> params) {
         int rowsUpdated = jdbc.update(query, params);
         if (rowsUpdated == 0) {
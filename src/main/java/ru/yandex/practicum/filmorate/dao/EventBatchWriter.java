@@ -0,0 +1,257 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.metrics.SqlStatementCounter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пишет ленту событий пакетами в фоновом потоке.
+ * Производители кладут события в ограниченную неблокирующую очередь: место резервируется CAS-ом
+ * на счётчике, сама очередь — {@link ConcurrentLinkedQueue}. Писатель забирает события пакетами
+ * не больше {@code batch-size} раз в {@code flush-interval} или сразу, как только набрался пакет.
+ * Писатель один и забирает события в порядке очереди, поэтому event_id растёт в порядке добавления
+ * и события одного пользователя не переставляются. Время событиям назначает писатель при записи
+ * пакета и не даёт ему убывать, поэтому порядок created_at совпадает с порядком event_id. Записанные пакеты передаются в {@link EventFeedBuffer}.
+ * При переполнении очереди производитель либо ждёт места ({@code block}), либо сам сбрасывает
+ * очередь в базу ({@code caller-runs}). Пакет пишется одной транзакцией; пакет, который не удалось
+ * записать за {@code max-attempts} попыток, отбрасывается с записью в лог, чтобы не держать очередь.
+ * Читатели ленты очередь не сбрасывают: чтение своей ленты ждёт, пока писатель запишет события
+ * этого пользователя ({@link #awaitWritten(Long)}), а события друзей появляются с задержкой до {@code flush-interval}.
+ * Ждущих читателей писатель будит сам после каждого пакета, а не они опрашивают очередь короткими паузами:
+ * под нагрузкой JDK 21 надолго откладывает виртуальные потоки, разбуженные таймером.
+ */
+@Slf4j
+@Component
+public class EventBatchWriter {
+    private static final long BLOCK_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long AWAIT_WRITTEN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Backpressure {
+        BLOCK,
+        CALLER_RUNS
+    }
+
+    private final EventRepository eventRepository;
+    private final EventFeedBuffer eventFeedBuffer;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Backpressure backpressure;
+    private final boolean flushOnShutdown;
+    private final int maxAttempts;
+    private final Queue<NewEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // число поставленных, но ещё не записанных (или не отброшенных) событий по пользователям
+    private final Map<Long, Integer> unwritten = new ConcurrentHashMap<>();
+    // потоки, ждущие в awaitWritten; писатель будит их после каждого пакета
+    private final Set<Thread> readers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // пакет, который не удалось записать; повторяется первым, чтобы не нарушить порядок
+    private final List<NewEvent> pending = new ArrayList<>();
+    private int failedAttempts;
+    private LocalDateTime lastCreatedAt = LocalDateTime.MIN;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EventBatchWriter(EventRepository eventRepository,
+                            EventFeedBuffer eventFeedBuffer,
+                            @Value("${filmorate.events.queue-capacity:10000}") int capacity,
+                            @Value("${filmorate.events.batch-size:100}") int batchSize,
+                            @Value("${filmorate.events.flush-interval:PT0.05S}") Duration flushInterval,
+                            @Value("${filmorate.events.backpressure:block}") String backpressure,
+                            @Value("${filmorate.events.flush-on-shutdown:true}") boolean flushOnShutdown,
+                            @Value("${filmorate.events.max-attempts:5}") int maxAttempts) {
+        if (capacity < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "Ёмкость очереди, размер пакета и число попыток записи событий должны быть положительными");
+        }
+        this.eventRepository = eventRepository;
+        this.eventFeedBuffer = eventFeedBuffer;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.backpressure = Backpressure.valueOf(backpressure.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.flushOnShutdown = flushOnShutdown;
+        this.maxAttempts = maxAttempts;
+        this.writer = Thread.ofPlatform().name("event-batch-writer").daemon().unstarted(this::run);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public void enqueue(NewEvent event) {
+        while (!tryReserve()) {
+            if (backpressure == Backpressure.CALLER_RUNS || !running) {
+                flush();
+            } else {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, BLOCK_PAUSE_NANOS);
+            }
+        }
+        unwritten.merge(event.userId(), 1, Integer::sum);
+        queue.offer(event);
+        if (!running) {
+            flush(); // писатель уже остановлен, пишем сами
+        } else if (size.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Ждёт, пока писатель запишет события пользователя, поставленные до вызова, — не дольше секунды.
+     * Сам поток ничего не пишет: он только будит писателя и спит, пока тот не запишет очередной пакет,
+     * и чужие события не ложатся на его запрос.
+     */
+    public void awaitWritten(Long userId) {
+        long deadline = System.nanoTime() + AWAIT_WRITTEN_NANOS;
+        Thread reader = Thread.currentThread();
+        readers.add(reader);
+        try {
+            while (unwritten.containsKey(userId) && writer.isAlive()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("События пользователя {} не записаны за секунду, лента может отставать", userId);
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            readers.remove(reader);
+        }
+    }
+
+    /**
+     * Записывает всё, что было в очереди на момент вызова: из фонового потока, при остановке
+     * и в режиме caller-runs. В очереди и события других пользователей, поэтому запись не идёт
+     * в счёт SQL-запросов вызвавшего HTTP-запроса и не прерывается его бюджетом.
+     */
+    public void flush() {
+        SqlStatementCounter.uncounted(this::flushQueued);
+    }
+
+    private void flushQueued() {
+        writeLock.lock();
+        try {
+            while (!pending.isEmpty() || !queue.isEmpty()) {
+                if (!writeBatch()) {
+                    return;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int queued() {
+        return size.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 1000);
+        readers.forEach(LockSupport::unpark); // писатель остановлен, ждать его читателям незачем
+        if (flushOnShutdown) {
+            flush();
+        }
+        int lost = size.get() + pending.size();
+        if (lost > 0) {
+            log.warn("Остановка без записи ленты событий: потеряно событий {}", lost);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            if (running) {
+                flush();
+            }
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean writeBatch() {
+        while (pending.size() < batchSize) {
+            NewEvent event = queue.poll();
+            if (event == null) {
+                break;
+            }
+            size.decrementAndGet();
+            pending.add(event);
+        }
+        // время не убывает, даже если часы системы перевели назад
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAt = now.isAfter(lastCreatedAt) ? now : lastCreatedAt;
+        List<Long> eventIds;
+        try {
+            eventIds = eventRepository.addEvents(pending, createdAt);
+        } catch (RuntimeException e) {
+            if (++failedAttempts < maxAttempts) {
+                log.error("Не удалось записать пакет ленты событий из {} записей (попытка {} из {}), "
+                        + "повтор при следующем сбросе", pending.size(), failedAttempts, maxAttempts, e);
+                return false;
+            }
+            log.error("Пакет ленты событий не записан за {} попыток и отброшен: {}", maxAttempts, pending, e);
+            release(pending);
+            pending.clear();
+            failedAttempts = 0;
+            return true;
+        }
+        // пакет в базе: повторять его больше нельзя, даже если обновление буферов не удастся
+        List<NewEvent> written = List.copyOf(pending);
+        pending.clear();
+        failedAttempts = 0;
+        lastCreatedAt = createdAt;
+        try {
+            eventFeedBuffer.appendAll(written, eventIds, createdAt);
+        } catch (RuntimeException e) {
+            log.error("Не удалось дописать пакет ленты событий в буферы, буферы его пользователей сброшены", e);
+            written.forEach(event -> eventFeedBuffer.removeUser(event.userId()));
+        }
+        release(written);
+        return true;
+    }
+
+    private void release(List<NewEvent> events) {
+        for (NewEvent event : events) {
+            unwritten.computeIfPresent(event.userId(), (userId, count) -> count == 1 ? null : count - 1);
+        }
+        readers.forEach(LockSupport::unpark);
+    }
+}
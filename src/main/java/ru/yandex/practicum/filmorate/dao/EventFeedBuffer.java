@@ -0,0 +1,247 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Последние {@code buffer-size} событий пользователя в кольцевых буферах; буферы держатся не больше чем
+ * для {@code max-users} пользователей, редко читаемые вытесняются (W-TinyLFU, Caffeine) и при следующем
+ * чтении поднимаются из базы заново.
+ * Буфер поднимается из базы при первом обращении к ленте пользователя, дальше пополняется
+ * {@link EventBatchWriter} после записи каждого пакета. Пока вся история пользователя помещается
+ * в буфер, лента отдаётся без запросов к базе; более старые события дочитываются из таблицы.
+ * Лента друзей собирается k-путевым слиянием их буферов через кучу, от новых событий к старым;
+ * непрогретые буферы друзей поднимаются одним запросом.
+ * Запросы к базе идут вне мониторов буферов: виртуальный поток не удерживает поток-носитель,
+ * пока ждёт соединения или ответа базы.
+ */
+@Slf4j
+@Component
+public class EventFeedBuffer {
+    private final EventRepository eventRepository;
+    private final int capacity;
+    private final Cache<Long, UserFeed> feeds;
+    private volatile Map<Long, String> typeNames;
+    private volatile Map<Long, String> operationNames;
+
+    public EventFeedBuffer(EventRepository eventRepository,
+                           @Value("${filmorate.feed.buffer-size:100}") int capacity,
+                           @Value("${filmorate.feed.max-users:10000}") long maxUsers) {
+        if (capacity < 1 || maxUsers < 1) {
+            throw new IllegalArgumentException("Размер буфера ленты и число буферов должны быть положительными");
+        }
+        this.eventRepository = eventRepository;
+        this.capacity = capacity;
+        this.feeds = Caffeine.newBuilder().maximumSize(maxUsers).build();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Вызывается после фиксации пакета: {@code eventIds} — присвоенные базой ID в порядке {@code events},
+     * {@code createdAt} — записанное время пакета.
+     * События пользователей, чьи буферы ещё не подняты, пропускаются — они будут прочитаны из базы.
+     */
+    public void appendAll(List<NewEvent> events, List<Long> eventIds, LocalDateTime createdAt) {
+        for (int i = 0; i < events.size(); i++) {
+            NewEvent event = events.get(i);
+            UserFeed feed = feeds.getIfPresent(event.userId());
+            if (feed != null) {
+                feed.append(toEvent(event, eventIds.get(i), createdAt));
+            }
+        }
+    }
+
+    /**
+     * Вся лента пользователя по возрастанию ID событий.
+     */
+    public List<Event> getFeed(Long userId) {
+        UserFeed feed = loadedFeed(userId);
+        List<Event> buffered = new ArrayList<>();
+        boolean complete;
+        synchronized (feed) {
+            feed.copyNewest(capacity, buffered);
+            complete = feed.complete;
+        }
+        if (complete || buffered.isEmpty()) {
+            return buffered;
+        }
+        List<Event> events = new ArrayList<>(
+                eventRepository.getEventListByUserIdBefore(userId, buffered.getFirst().getEventId()));
+        events.addAll(buffered);
+        return events;
+    }
+
+    /**
+     * Не больше {@code limit} последних событий друзей, от новых к старым; {@code limit} не превышает размер буфера,
+     * поэтому событий из буферов всегда достаточно.
+     */
+    public List<Event> getFriendsTimeline(Collection<Long> friendIds, int limit) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, friendIds.size()),
+                Comparator.comparingLong(Cursor::headId).reversed());
+        for (UserFeed feed : loadedFeeds(friendIds)) {
+            List<Event> newest = new ArrayList<>(limit);
+            synchronized (feed) {
+                feed.copyNewest(limit, newest);
+            }
+            if (!newest.isEmpty()) {
+                heap.add(new Cursor(newest, newest.size() - 1));
+            }
+        }
+        List<Event> timeline = new ArrayList<>(limit);
+        while (timeline.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            timeline.add(cursor.events().get(cursor.position()));
+            if (cursor.position() > 0) {
+                heap.add(new Cursor(cursor.events(), cursor.position() - 1));
+            }
+        }
+        return timeline;
+    }
+
+    public void removeUser(Long userId) {
+        feeds.invalidate(userId);
+    }
+
+    long bufferedUsers() {
+        feeds.cleanUp();
+        return feeds.estimatedSize();
+    }
+
+    private UserFeed loadedFeed(Long userId) {
+        UserFeed feed = feeds.get(userId, id -> new UserFeed(capacity));
+        if (!feed.loaded) {
+            // одно лишнее событие показывает, что история длиннее буфера
+            feed.load(eventRepository.getLastEventsByUserId(userId, capacity + 1));
+        }
+        return feed;
+    }
+
+    private List<UserFeed> loadedFeeds(Collection<Long> userIds) {
+        List<UserFeed> result = new ArrayList<>(userIds.size());
+        Map<Long, UserFeed> cold = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            UserFeed feed = feeds.get(userId, id -> new UserFeed(capacity));
+            result.add(feed);
+            if (!feed.loaded) {
+                cold.put(userId, feed);
+            }
+        }
+        if (!cold.isEmpty()) {
+            Map<Long, List<Event>> last = eventRepository.getLastEventsByUserIds(
+                    new ArrayList<>(cold.keySet()), capacity + 1);
+            cold.forEach((userId, feed) -> feed.load(last.getOrDefault(userId, List.of())));
+        }
+        return result;
+    }
+
+    private Event toEvent(NewEvent event, Long eventId, LocalDateTime createdAt) {
+        if (typeNames == null || operationNames == null) {
+            typeNames = eventRepository.getEventTypeNames();
+            operationNames = eventRepository.getOperationNames();
+        }
+        return Event.builder()
+                .eventId(eventId)
+                .userId(event.userId())
+                .entityId(event.entityId())
+                .eventType(typeNames.get(event.typeId()))
+                .operation(operationNames.get(event.operationId()))
+                .timestamp(createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
+    }
+
+    private record Cursor(List<Event> events, int position) {
+        long headId() {
+            return events.get(position).getEventId();
+        }
+    }
+
+    /**
+     * Кольцевой буфер одного пользователя; поля, кроме {@code loaded}, читаются и меняются под монитором объекта.
+     * Загрузка читает базу без монитора, поэтому события, дописанные до её окончания, копятся в {@code early}
+     * и переносятся в буфер при публикации загруженного.
+     */
+    private static final class UserFeed {
+        private final Event[] ring;
+        private final Deque<Event> early = new ArrayDeque<>();
+        private int head;
+        private int size;
+        private volatile boolean loaded;
+        // в буфере вся история пользователя
+        private boolean complete;
+        // из early вытеснены старые события, история длиннее буфера
+        private boolean earlyOverflow;
+
+        UserFeed(int capacity) {
+            ring = new Event[capacity];
+        }
+
+        synchronized void append(Event event) {
+            if (!loaded) {
+                if (early.size() == ring.length) {
+                    early.removeFirst();
+                    earlyOverflow = true;
+                }
+                early.addLast(event);
+                return;
+            }
+            if (size > 0 && ring[(head + size - 1) % ring.length].getEventId() >= event.getEventId()) {
+                return; // загрузка успела прочитать это событие из базы
+            }
+            put(event);
+        }
+
+        /**
+         * Публикует последние события из базы, на одно больше ёмкости буфера; если буфер уже загружен
+         * другим потоком, ничего не делает.
+         */
+        synchronized void load(List<Event> last) {
+            if (loaded) {
+                return;
+            }
+            complete = last.size() <= ring.length && !earlyOverflow;
+            last.subList(Math.max(0, last.size() - ring.length), last.size()).forEach(this::put);
+            long lastLoadedId = size > 0 ? ring[(head + size - 1) % ring.length].getEventId() : 0;
+            for (Event event : early) {
+                if (event.getEventId() > lastLoadedId) {
+                    put(event);
+                }
+            }
+            early.clear();
+            loaded = true;
+        }
+
+        void put(Event event) {
+            if (size == ring.length) {
+                ring[head] = event;
+                head = (head + 1) % ring.length;
+                complete = false;
+            } else {
+                ring[(head + size) % ring.length] = event;
+                size++;
+            }
+        }
+
+        /**
+         * Копии последних {@code count} событий по возрастанию ID.
+         */
+        void copyNewest(int count, List<Event> target) {
+            int from = Math.max(0, size - count);
+            for (int i = from; i < size; i++) {
+                target.add(ring[(head + i) % ring.length].toBuilder().build());
+            }
+        }
+    }
+}
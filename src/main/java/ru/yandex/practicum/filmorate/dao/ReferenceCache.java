@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Неизменяемый снимок справочника (жанры, рейтинги MPA): записи лежат в массиве по индексу id.
+ * Наружу отдаются копии, чтобы вызывающий код не мог испортить закешированные объекты.
+ */
+public final class ReferenceCache<T> {
+    private final Object[] byId;
+    private final List<T> all;
+    private final UnaryOperator<T> copier;
+
+    private ReferenceCache(Object[] byId, List<T> all, UnaryOperator<T> copier) {
+        this.byId = byId;
+        this.all = all;
+        this.copier = copier;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ReferenceCache<T> of(Collection<T> items, ToLongFunction<T> idGetter, UnaryOperator<T> copier) {
+        long maxId = items.stream().mapToLong(idGetter).max().orElse(0);
+        if (maxId >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Идентификатор справочника слишком велик для кеша: " + maxId);
+        }
+        Object[] byId = new Object[(int) maxId + 1];
+        for (T item : items) {
+            long id = idGetter.applyAsLong(item);
+            if (id < 0) {
+                throw new IllegalArgumentException("Отрицательный идентификатор справочника: " + id);
+            }
+            byId[(int) id] = item;
+        }
+        List<T> all = Arrays.stream(byId).filter(Objects::nonNull).map(item -> (T) item).toList();
+        return new ReferenceCache<>(byId, all, copier);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<T> get(Long id) {
+        if (id == null || id < 0 || id >= byId.length || byId[id.intValue()] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(copier.apply((T) byId[id.intValue()]));
+    }
+
+    public boolean contains(Long id) {
+        return id != null && id >= 0 && id < byId.length && byId[id.intValue()] != null;
+    }
+
+    public List<T> all() {
+        return all.stream().map(copier).toList();
+    }
+}
@@ -16,6 +16,8 @@ public interface DirectorRepository {
 
     Optional<Director> getDirectorById(Long id);
 
+    boolean existsDirectorById(Long id);
+
     boolean deleteDirector(Long id);
 
     Set<Director> findDirectorByFilmId(Long id);
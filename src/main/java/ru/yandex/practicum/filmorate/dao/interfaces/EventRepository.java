@@ -2,11 +2,47 @@ package ru.yandex.practicum.filmorate.dao.interfaces;
 
 import ru.yandex.practicum.filmorate.model.Event;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface EventRepository {
 
-    void addEvent(Long userId, Long entityId, Long typeId, Long operationId);
+    /**
+     * Записывает события одним пакетом в одной транзакции в порядке списка с общим временем {@code createdAt}
+     * и возвращает присвоенные им ID в том же порядке.
+     */
+    List<Long> addEvents(List<NewEvent> events, LocalDateTime createdAt);
 
     Collection<Event> getEventListByUserId(Long userId);
+
+    List<Event> getEventListByUserIdAfter(Long userId, long afterId, int limit);
+
+    /**
+     * События пользователя с ID меньше {@code beforeId} по возрастанию ID.
+     */
+    List<Event> getEventListByUserIdBefore(Long userId, long beforeId);
+
+    /**
+     * Последние {@code limit} событий пользователя по возрастанию ID.
+     */
+    List<Event> getLastEventsByUserId(Long userId, int limit);
+
+    /**
+     * Последние {@code limit} событий каждого из пользователей одним запросом, по возрастанию ID;
+     * пользователи без событий в результат не попадают.
+     */
+    Map<Long, List<Event>> getLastEventsByUserIds(Collection<Long> userIds, int limit);
+
+    Map<Long, String> getEventTypeNames();
+
+    Map<Long, String> getOperationNames();
+
+    /**
+     * Событие до записи; время ему назначает {@link ru.yandex.practicum.filmorate.dao.EventBatchWriter}
+     * при записи пакета, чтобы порядок created_at совпадал с порядком event_id.
+     */
+    record NewEvent(Long userId, Long entityId, Long typeId, Long operationId) {
+    }
 }
@@ -3,20 +3,35 @@ package ru.yandex.practicum.filmorate.dao.interfaces;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface FilmRepository {
 
     Collection<Film> findAllFilms();
 
+    List<Film> findFilmsAfter(long afterId, int limit);
+
+    void streamAllFilms(Consumer<Film> consumer);
+
     Collection<Film> getPopularFilms(int count, Long genreId, int year);
 
+    List<Long> getPopularFilmIds(int count, Long genreId, int year);
+
     Film createFilm(Film film);
 
     Film updateFilm(Film newFilm);
 
     Optional<Film> getFilmById(Long id);
 
+    List<Film> findFilmsByIds(List<Long> filmIds);
+
+    Map<Long, Integer> getLikeCounts();
+
+    boolean existsFilmById(Long id);
+
     boolean deleteFilm(Long id);
 
     Collection<Film> getDirectorFilmsSortedByYear(Long directorId);
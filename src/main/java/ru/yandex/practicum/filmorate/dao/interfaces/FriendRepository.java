@@ -12,6 +12,8 @@ public interface FriendRepository {
 
     List<User> getFriends(Long userId);
 
+    List<Long> getFriendIds(Long userId);
+
     List<User> getCommonFriends(Long userId1, Long userId2);
 
     boolean hasFriendship(Long userId, Long friendId);
@@ -1,8 +1,15 @@
 package ru.yandex.practicum.filmorate.dao.interfaces;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+
 public interface LikeRepository {
 
-    void addLike(Long filmId, Long userId);
+    boolean addLike(Long filmId, Long userId);
+
+    boolean removeLike(Long filmId, Long userId);
+
+    List<Long> findFilmIdsLikedByUser(Long userId);
 
-    void removeLike(Long filmId, Long userId);
+    void forEachLike(BiConsumer<Long, Long> userAndFilm);
 }
@@ -3,6 +3,7 @@ package ru.yandex.practicum.filmorate.dao.interfaces;
 import ru.yandex.practicum.filmorate.model.Review;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReviewRepository {
@@ -15,10 +16,14 @@ public interface ReviewRepository {
 
     Optional<Review> getReviewById(Long reviewId);
 
+    boolean existsReviewById(Long reviewId);
+
     Collection<Review> getPopularReviews(Long filmId, int count);
 
     Collection<Review> getAllReviews(int count);
 
+    List<Review> getReviewsAfter(Long filmId, Integer afterUseful, Long afterReviewId, int limit);
+
     void addLikeReview(Long reviewId, Long userId);
 
     void addDislikeReview(Long reviewId, Long userId);
@@ -4,17 +4,25 @@ import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserRepository {
     Collection<User> findAllUsers();
 
+    List<User> findUsersAfter(long afterId, int limit);
+
+    void streamAllUsers(Consumer<User> consumer);
+
     User createUser(User user);
 
     User updateUser(User newUser);
 
     Optional<User> getUserById(Long id);
 
+    boolean existsUserById(Long id);
+
     boolean deleteUser(Long id);
 
     Collection<Film> getUserRecommendations(Long id);
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
@@ -11,9 +12,11 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Repository
+@Timed("filmorate.repository")
 public class JdbcDirectorRepository extends BaseRepository<Director> implements DirectorRepository {
     private static final String FIND_ALL_DIRECTORS_QUERY = "SELECT * FROM directors";
     private static final String FIND_DIRECTOR_BY_ID_QUERY = "SELECT * FROM directors WHERE director_id = :directorId";
+    private static final String EXISTS_DIRECTOR_BY_ID_QUERY = "SELECT EXISTS (SELECT 1 FROM directors WHERE director_id = :directorId)";
     private static final String INSERT_DIRECTOR_QUERY = """
             INSERT INTO directors (name)
             VALUES (:name)
@@ -50,6 +53,13 @@ public class JdbcDirectorRepository extends BaseRepository<Director> implements
         return findOne(FIND_DIRECTOR_BY_ID_QUERY, params);
     }
 
+    @Override
+    public boolean existsDirectorById(Long directorId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("directorId", directorId);
+        return exists(EXISTS_DIRECTOR_BY_ID_QUERY, params);
+    }
+
     @Override
     public Director createDirector(Director director) {
         Map<String, Object> params = new HashMap<>();
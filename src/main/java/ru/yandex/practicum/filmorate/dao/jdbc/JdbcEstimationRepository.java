@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
@@ -13,6 +14,7 @@ import java.util.Map;
 import java.util.Optional;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("estimationRepository")
 public class JdbcEstimationRepository extends BaseRepository<Estimation> implements EstimationRepository {
 
@@ -1,19 +1,31 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.BaseRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
 import ru.yandex.practicum.filmorate.mappers.EventRowMapper;
 import ru.yandex.practicum.filmorate.model.Event;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("eventRepository")
 public class JdbcEventRepository extends BaseRepository<Event> implements EventRepository {
 
@@ -21,7 +33,7 @@ public class JdbcEventRepository extends BaseRepository<Event> implements EventR
             " operation_id, entity_id, created_at)" +
             "VALUES (:userId, :typeId, :operationId, :entityId, :timestamp)";
 
-    private static final String FIND_EVENT_LIST_BY_USER_ID_QUERY = """
+    static final String FIND_EVENT_LIST_BY_USER_ID_QUERY = """
             SELECT
                 ef.*,
                 et.event_type type,
@@ -30,32 +42,155 @@ public class JdbcEventRepository extends BaseRepository<Event> implements EventR
             JOIN event_type et ON ef.type_id = et.type_id
             JOIN event_operation eo ON ef.operation_id = eo.operation_id
             WHERE ef.user_id = :userId
-            ORDER BY ef.created_at
+            ORDER BY ef.created_at, ef.event_id
             """;
 
+    // event_id растёт вместе с created_at, поэтому страницы режутся по нему; user_id в ORDER BY при
+    // равенстве ничего не меняет, но без него H2 не берёт порядок из индекса и сортирует всю историю
+    static final String FIND_EVENT_PAGE_BY_USER_ID_QUERY = """
+            SELECT
+                ef.*,
+                et.event_type type,
+                eo.operation_type operation
+            FROM event_feed ef
+            JOIN event_type et ON ef.type_id = et.type_id
+            JOIN event_operation eo ON ef.operation_id = eo.operation_id
+            WHERE ef.user_id = :userId AND ef.event_id > :afterId
+            ORDER BY ef.user_id, ef.event_id
+            LIMIT :limit
+            """;
+
+    static final String FIND_EVENTS_BEFORE_QUERY = """
+            SELECT
+                ef.*,
+                et.event_type type,
+                eo.operation_type operation
+            FROM event_feed ef
+            JOIN event_type et ON ef.type_id = et.type_id
+            JOIN event_operation eo ON ef.operation_id = eo.operation_id
+            WHERE ef.user_id = :userId AND ef.event_id < :beforeId
+            ORDER BY ef.user_id, ef.event_id
+            """;
+
+    static final String FIND_LAST_EVENTS_QUERY = """
+            SELECT
+                ef.*,
+                et.event_type type,
+                eo.operation_type operation
+            FROM event_feed ef
+            JOIN event_type et ON ef.type_id = et.type_id
+            JOIN event_operation eo ON ef.operation_id = eo.operation_id
+            WHERE ef.user_id = :userId
+            ORDER BY ef.user_id, ef.event_id DESC
+            LIMIT :limit
+            """;
+
+    // mapper читает operation_type по имени столбца, поэтому он выбирается без псевдонима
+    static final String FIND_LAST_EVENTS_OF_USERS_QUERY = """
+            SELECT *
+            FROM (SELECT
+                      ef.*,
+                      et.event_type type,
+                      eo.operation_type,
+                      ROW_NUMBER() OVER (PARTITION BY ef.user_id ORDER BY ef.event_id DESC) AS event_rank
+                  FROM event_feed ef
+                  JOIN event_type et ON ef.type_id = et.type_id
+                  JOIN event_operation eo ON ef.operation_id = eo.operation_id
+                  WHERE ef.user_id IN (SELECT ids.user_id
+                                       FROM UNNEST(CAST(:userIds AS BIGINT ARRAY)) AS ids(user_id)))
+            WHERE event_rank <= :limit
+            ORDER BY user_id, event_id
+            """;
+
+    private static final String FIND_EVENT_TYPES_QUERY = "SELECT type_id, event_type FROM event_type";
+
+    private static final String FIND_OPERATIONS_QUERY = "SELECT operation_id, operation_type FROM event_operation";
+
     public JdbcEventRepository(NamedParameterJdbcOperations jdbc, EventRowMapper mapper) {
         super(jdbc, mapper);
     }
 
     @Override
-    public void addEvent(Long userId, Long entityId, Long typeId, Long operationId) {
+    @Transactional
+    public List<Long> addEvents(List<NewEvent> events, LocalDateTime createdAt) {
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("userId", event.userId())
+                        .addValue("entityId", event.entityId())
+                        .addValue("typeId", event.typeId())
+                        .addValue("operationId", event.operationId())
+                        .addValue("timestamp", createdAt))
+                .toArray(SqlParameterSource[]::new);
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.batchUpdate(INSERT_EVENT_QUERY, batch, keyHolder, new String[]{"EVENT_ID"});
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("EVENT_ID")).longValue())
+                .toList();
+    }
+
+    @Override
+    public Collection<Event> getEventListByUserId(Long userId) {
         Map<String, Object> params = new HashMap<>();
         params.put("userId", userId);
-        params.put("entityId", entityId);
-        params.put("typeId", typeId);
-        params.put("operationId", operationId);
-        params.put("timestamp", LocalDateTime.now());
+        return findMany(FIND_EVENT_LIST_BY_USER_ID_QUERY, params);
+    }
 
-        safeInsert(INSERT_EVENT_QUERY, params);
+    @Override
+    public List<Event> getEventListByUserIdAfter(Long userId, long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("afterId", afterId);
+        params.put("limit", limit);
+        return findMany(FIND_EVENT_PAGE_BY_USER_ID_QUERY, params);
     }
 
     @Override
-    public Collection<Event> getEventListByUserId(Long userId) {
+    public List<Event> getEventListByUserIdBefore(Long userId, long beforeId) {
         Map<String, Object> params = new HashMap<>();
         params.put("userId", userId);
-        return findMany(FIND_EVENT_LIST_BY_USER_ID_QUERY, params);
+        params.put("beforeId", beforeId);
+        return findMany(FIND_EVENTS_BEFORE_QUERY, params);
     }
-}
 
+    @Override
+    public List<Event> getLastEventsByUserId(Long userId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("limit", limit);
+        List<Event> events = findMany(FIND_LAST_EVENTS_QUERY, params);
+        Collections.reverse(events);
+        return events;
+    }
+
+    @Override
+    public Map<Long, List<Event>> getLastEventsByUserIds(Collection<Long> userIds, int limit) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> params = new HashMap<>();
+        // массив одним параметром: сколько бы ни было друзей, это один запрос без расписывания IN (?, ?, ...)
+        params.put("userIds", new SqlParameterValue(Types.ARRAY, userIds.toArray(new Long[0])));
+        params.put("limit", limit);
+        Map<Long, List<Event>> events = new HashMap<>();
+        for (Event event : findMany(FIND_LAST_EVENTS_OF_USERS_QUERY, params)) {
+            events.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event);
+        }
+        return events;
+    }
 
+    @Override
+    public Map<Long, String> getEventTypeNames() {
+        return findNames(FIND_EVENT_TYPES_QUERY);
+    }
 
+    @Override
+    public Map<Long, String> getOperationNames() {
+        return findNames(FIND_OPERATIONS_QUERY);
+    }
+
+    private Map<Long, String> findNames(String query) {
+        Map<Long, String> names = new HashMap<>();
+        jdbc.query(query, Map.of(), (RowCallbackHandler) rs -> names.put(rs.getLong(1), rs.getString(2)));
+        return names;
+    }
+}
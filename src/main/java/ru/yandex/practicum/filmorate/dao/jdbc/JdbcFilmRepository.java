@@ -1,39 +1,74 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.dao.BaseRepository;
-import ru.yandex.practicum.filmorate.dao.interfaces.DirectorRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.FilmRepository;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
 import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
-import ru.yandex.practicum.filmorate.dao.interfaces.GenreRepository;
 import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("filmRepository")
 public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepository {
-    private static final String FIND_ALL_FILMS_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
-            FROM films f
+    // Выборка фильма вместе с MPA, жанрами и режиссёрами одним запросом.
+    // Подзапрос задаёт набор film_id и порядок выдачи через sort_rank.
+    static final String FILM_AGGREGATE_QUERY = """
+            SELECT f.film_id, f.name, f.description, f.release_date, f.duration,
+            m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description,
+            g.genre_id, g.name AS genre_name, d.director_id, d.name AS director_name
+            FROM (%s) sel
+            JOIN films f ON f.film_id = sel.film_id
             JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            ORDER BY f.film_id
+            LEFT JOIN film_genre fg ON f.film_id = fg.film_id
+            LEFT JOIN genres g ON fg.genre_id = g.genre_id
+            LEFT JOIN film_directors fd ON f.film_id = fd.film_id
+            LEFT JOIN directors d ON fd.director_id = d.director_id
+            ORDER BY sel.sort_rank
             """;
 
-    private static final String FIND_FILM_BY_ID_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+    private static final String FIND_ALL_FILMS_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, f.film_id AS sort_rank
+            FROM films f
+            """);
+
+    static final String FIND_FILMS_PAGE_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, f.film_id AS sort_rank
+            FROM films f
+            WHERE f.film_id > :afterId
+            ORDER BY f.film_id
+            LIMIT :limit
+            """);
+
+    private static final String FIND_FILM_BY_ID_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, f.film_id AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
             WHERE f.film_id = :filmId
-            """;
+            """);
+
+    // Фильмы в порядке переданного массива идентификаторов
+    private static final String FIND_FILMS_BY_IDS_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT ids.film_id, ids.sort_rank
+            FROM UNNEST(CAST(:filmIds AS BIGINT ARRAY)) WITH ORDINALITY AS ids(film_id, sort_rank)
+            """);
+
+    private static final String FIND_LIKE_COUNTS_QUERY = "SELECT film_id, like_count FROM films";
+
+    private static final String EXISTS_FILM_BY_ID_QUERY = "SELECT EXISTS (SELECT 1 FROM films WHERE film_id = :filmId)";
 
     private static final String INSERT_FILM_QUERY = """
             INSERT INTO films (name, description, release_date, duration, mpa_id)
@@ -48,127 +83,134 @@ public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepo
 
     private static final String DELETE_FILM_QUERY = "DELETE FROM films WHERE film_id = :filmId";
 
-    private static final String GET_POPULAR_FILM_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description,
-            COUNT(l.user_id) AS like_count
+    static final String POPULAR_FILM_IDS_QUERY = """
+            SELECT f.film_id, ROW_NUMBER() OVER (ORDER BY f.like_count DESC, f.film_id) AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            LEFT JOIN likes l ON f.film_id = l.film_id
-            WHERE YEAR(f.RELEASE_DATE) = :year OR :year = 2999
-            GROUP BY f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
-                 m.mpa_id, m.name, m.description
-            ORDER BY like_count DESC
+            WHERE YEAR(f.release_date) = :year OR :year = 2999
+            ORDER BY sort_rank
             LIMIT :count
             """;
 
-    private static final String GET_POPULAR_FILM_GENRE_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description,
-            COUNT(l.user_id) AS like_count
+    static final String POPULAR_FILM_GENRE_IDS_QUERY = """
+            SELECT f.film_id, ROW_NUMBER() OVER (ORDER BY f.like_count DESC, f.film_id) AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            JOIN film_genre fg ON fg.FILM_ID = f.FILM_ID AND fg.GENRE_ID = :genreId
-            LEFT JOIN likes l ON f.film_id = l.film_id
-            WHERE YEAR(f.RELEASE_DATE) = :year OR :year = 2999
-            GROUP BY f.film_id, f.name, f.description, f.release_date, f.duration, f.mpa_id,
-                 m.mpa_id, m.name, m.description
-            ORDER BY like_count DESC
+            JOIN film_genre fg ON fg.film_id = f.film_id AND fg.genre_id = :genreId
+            WHERE YEAR(f.release_date) = :year OR :year = 2999
+            ORDER BY sort_rank
             LIMIT :count
             """;
 
+    private static final String GET_POPULAR_FILM_QUERY = FILM_AGGREGATE_QUERY.formatted(POPULAR_FILM_IDS_QUERY);
+
+    private static final String GET_POPULAR_FILM_GENRE_QUERY = FILM_AGGREGATE_QUERY.formatted(POPULAR_FILM_GENRE_IDS_QUERY);
+
     private static final String DELETE_GENRE_FILM_QUERY = "DELETE FROM film_genre WHERE film_id = :filmId";
     private static final String DELETE_DIRECTOR_FILM_QUERY = "DELETE FROM film_directors WHERE film_id = :filmId";
     private static final String INSERT_GENRE_FILM_QUERY = """
             INSERT INTO film_genre(film_id, genre_id) VALUES(?, ?)""";
     private static final String INSERT_DIRECTOR_FILM_QUERY = """
             INSERT INTO film_directors(film_id, director_id) VALUES(?, ?)""";
-    private static final String GET_DIRECTOR_FILMS_BY_YEAR = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description,
-            COUNT(l.user_id) AS like_count
+    static final String GET_DIRECTOR_FILMS_BY_YEAR = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, ROW_NUMBER() OVER (ORDER BY f.release_date, f.film_id) AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
             JOIN film_directors fd ON f.film_id = fd.film_id
-            LEFT JOIN likes l ON f.film_id = l.film_id
             WHERE fd.director_id = :directorId
-            GROUP BY f.film_id, m.mpa_id
-            ORDER BY f.release_date
-            """;
-    private static final String GET_DIRECTOR_FILMS_BY_LIKES = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description,
-            COUNT(l.user_id) AS like_count
+            """);
+    static final String GET_DIRECTOR_FILMS_BY_LIKES = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, ROW_NUMBER() OVER (ORDER BY f.like_count DESC, f.film_id) AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
             JOIN film_directors fd ON f.film_id = fd.film_id
-            LEFT JOIN likes l ON f.film_id = l.film_id
             WHERE fd.director_id = :directorId
-            GROUP BY f.film_id, m.mpa_id
-            ORDER BY like_count DESC
-            """;
-    private static final String GET_COMMON_FILMS_WITH_FRIEND = """
-            SELECT f.*,m.mpa_id AS mpa_id, m.name AS mpa_name,m.description AS mpa_description,
-            (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id) AS like_count
+            """);
+    static final String GET_COMMON_FILMS_WITH_FRIEND = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, ROW_NUMBER() OVER (ORDER BY f.like_count DESC, f.film_id) AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            WHERE EXISTS (SELECT 1 FROM likes l WHERE l.film_id = f.film_id AND l.user_id = :userId)
-            AND EXISTS (SELECT 1 FROM likes l WHERE l.film_id = f.film_id AND l.user_id = :friendId)
-            ORDER BY like_count DESC
-            """;
+            JOIN likes lu ON lu.film_id = f.film_id AND lu.user_id = :userId
+            JOIN likes lf ON lf.film_id = f.film_id AND lf.user_id = :friendId
+            """);
 
-    private static final String SEARCH_FILMS_BY_TITLE_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+    private static final String SEARCH_FILMS_BY_TITLE_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, -f.film_id AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            WHERE LOWER(f.name) LIKE LOWER(CONCAT('%', :query, '%'))
-            ORDER BY f.film_id DESC
-            """;
+            WHERE LOWER(f.name) LIKE LOWER(CONCAT('%%', :query, '%%'))
+            """);
 
-    private static final String SEARCH_FILMS_BY_DIRECTOR_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+    private static final String SEARCH_FILMS_BY_DIRECTOR_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, -f.film_id AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            JOIN film_directors fd ON f.film_id = fd.film_id
-            JOIN directors d ON fd.director_id = d.director_id
-            WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :query, '%'))
-            ORDER BY f.film_id DESC
-            """;
-
-    private static final String SEARCH_FILMS_BY_TITLE_AND_DIRECTOR_QUERY = """
-            SELECT DISTINCT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description
+            WHERE f.film_id IN (SELECT fd.film_id
+                                FROM film_directors fd
+                                JOIN directors d ON fd.director_id = d.director_id
+                                WHERE LOWER(d.name) LIKE LOWER(CONCAT('%%', :query, '%%')))
+            """);
+
+    private static final String SEARCH_FILMS_BY_TITLE_AND_DIRECTOR_QUERY = FILM_AGGREGATE_QUERY.formatted("""
+            SELECT f.film_id, -f.film_id AS sort_rank
             FROM films f
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
-            LEFT JOIN film_directors fd ON f.film_id = fd.film_id
-            LEFT JOIN directors d ON fd.director_id = d.director_id
-            WHERE LOWER(f.name) LIKE LOWER(CONCAT('%', :query, '%'))
-               OR LOWER(d.name) LIKE LOWER(CONCAT('%', :query, '%'))
-            ORDER BY f.film_id DESC
-            """;
+            WHERE LOWER(f.name) LIKE LOWER(CONCAT('%%', :query, '%%'))
+               OR f.film_id IN (SELECT fd.film_id
+                                FROM film_directors fd
+                                JOIN directors d ON fd.director_id = d.director_id
+                                WHERE LOWER(d.name) LIKE LOWER(CONCAT('%%', :query, '%%')))
+            """);
 
-    private final GenreRepository genreRepository;
-    private final DirectorRepository directorRepository;
+    private final FilmExtractor filmExtractor;
 
-    public JdbcFilmRepository(NamedParameterJdbcOperations jdbc, FilmRowMapper mapper, GenreRepository genreRepository,
-                              DirectorRepository directorRepository) {
+    public JdbcFilmRepository(NamedParameterJdbcOperations jdbc, FilmRowMapper mapper, FilmExtractor filmExtractor) {
         super(jdbc, mapper);
-        this.genreRepository = genreRepository;
-        this.directorRepository = directorRepository;
+        this.filmExtractor = filmExtractor;
     }
 
     @Override
     public List<Film> findAllFilms() {
-        return findMany(FIND_ALL_FILMS_QUERY, new HashMap<>()).stream().peek(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }).collect(Collectors.toList());
+        return findAggregates(FIND_ALL_FILMS_QUERY, new HashMap<>());
+    }
+
+    @Override
+    public void streamAllFilms(Consumer<Film> consumer) {
+        // общий запрос сортирует все строки соединения с жанрами и режиссёрами до выдачи первой,
+        // а страница по film_id читает первичный ключ по порядку
+        forEachPage(this::findFilmsAfter, Film::getId, consumer);
+    }
+
+    @Override
+    public List<Film> findFilmsAfter(long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterId", afterId);
+        params.put("limit", limit);
+        return findAggregates(FIND_FILMS_PAGE_QUERY, params);
     }
 
     @Override
     public Optional<Film> getFilmById(Long filmId) {
         Map<String, Object> params = new HashMap<>();
         params.put("filmId", filmId);
-        return findOne(FIND_FILM_BY_ID_QUERY, params).map(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(filmId));
-            film.setDirectors(directorRepository.findDirectorByFilmId(filmId));
-            return film;
-        });
+        return findAggregates(FIND_FILM_BY_ID_QUERY, params).stream().findFirst();
+    }
+
+    @Override
+    public List<Film> findFilmsByIds(List<Long> filmIds) {
+        if (filmIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("filmIds", new SqlParameterValue(Types.ARRAY, filmIds.toArray(new Long[0])));
+        return findAggregates(FIND_FILMS_BY_IDS_QUERY, params);
+    }
+
+    @Override
+    public Map<Long, Integer> getLikeCounts() {
+        Map<Long, Integer> likeCounts = new HashMap<>();
+        jdbc.query(FIND_LIKE_COUNTS_QUERY, new HashMap<>(),
+                (RowCallbackHandler) rs -> likeCounts.put(rs.getLong("film_id"), rs.getInt("like_count")));
+        return likeCounts;
+    }
+
+    @Override
+    public boolean existsFilmById(Long filmId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("filmId", filmId);
+        return exists(EXISTS_FILM_BY_ID_QUERY, params);
     }
 
     @Override
@@ -199,8 +241,7 @@ public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepo
         update(UPDATE_FILM_QUERY, params);
         updateGenres(newFilm.getGenres(), newFilm.getId());
         updateDirectors(newFilm.getDirectors(), newFilm.getId());
-        newFilm.setGenres(genreRepository.findGenreByFilmId(newFilm.getId()));
-        return newFilm;
+        return getFilmById(newFilm.getId()).orElse(newFilm);
     }
 
     @Override
@@ -216,17 +257,20 @@ public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepo
         params.put("count", count);
         params.put("genreId", genreId);
         params.put("year", year);
-        Collection<Film> films;
         if (genreId != null) {
-            films = findMany(GET_POPULAR_FILM_GENRE_QUERY, params);
-        } else {
-            films = findMany(GET_POPULAR_FILM_QUERY, params);
+            return findAggregates(GET_POPULAR_FILM_GENRE_QUERY, params);
         }
-        for (Film film : films) {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }
-        return films;
+        return findAggregates(GET_POPULAR_FILM_QUERY, params);
+    }
+
+    @Override
+    public List<Long> getPopularFilmIds(int count, Long genreId, int year) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("count", count);
+        params.put("genreId", genreId);
+        params.put("year", year);
+        String query = genreId != null ? POPULAR_FILM_GENRE_IDS_QUERY : POPULAR_FILM_IDS_QUERY;
+        return jdbc.query(query, params, (rs, rowNum) -> rs.getLong("film_id"));
     }
 
     public void updateDirectors(Set<Director> directors, Long filmId) {
@@ -282,23 +326,13 @@ public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepo
     public Collection<Film> getDirectorFilmsSortedByYear(Long directorId) {
         Map<String, Object> params = new HashMap<>();
         params.put("directorId", directorId);
-        Collection<Film> films = findMany(GET_DIRECTOR_FILMS_BY_YEAR, params);
-        for (Film film : films) {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }
-        return films;
+        return findAggregates(GET_DIRECTOR_FILMS_BY_YEAR, params);
     }
 
     public Collection<Film> getDirectorFilmsSortedByLikes(Long directorId) {
         Map<String, Object> params = new HashMap<>();
         params.put("directorId", directorId);
-        Collection<Film> films = findMany(GET_DIRECTOR_FILMS_BY_LIKES, params);
-        for (Film film : films) {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }
-        return films;
+        return findAggregates(GET_DIRECTOR_FILMS_BY_LIKES, params);
     }
 
     @Override
@@ -306,39 +340,31 @@ public class JdbcFilmRepository extends BaseRepository<Film> implements FilmRepo
         Map<String, Object> params = new HashMap<>();
         params.put("userId", userId);
         params.put("friendId", friendId);
-        return findMany(GET_COMMON_FILMS_WITH_FRIEND, params).stream().peek(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }).collect(Collectors.toList());
+        return findAggregates(GET_COMMON_FILMS_WITH_FRIEND, params);
     }
 
     @Override
     public Collection<Film> getResultSearchForFilmsByTitle(String query) {
         Map<String, Object> params = new HashMap<>();
         params.put("query", query);
-        return findMany(SEARCH_FILMS_BY_TITLE_QUERY, params).stream().peek(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }).collect(Collectors.toList());
+        return findAggregates(SEARCH_FILMS_BY_TITLE_QUERY, params);
     }
 
     @Override
     public Collection<Film> getResultSearchForFilmsByDirector(String query) {
         Map<String, Object> params = new HashMap<>();
         params.put("query", query);
-        return findMany(SEARCH_FILMS_BY_DIRECTOR_QUERY, params).stream().peek(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }).collect(Collectors.toList());
+        return findAggregates(SEARCH_FILMS_BY_DIRECTOR_QUERY, params);
     }
 
     @Override
     public Collection<Film> getResultSearchForFilmsByDirectorAndTitle(String query) {
         Map<String, Object> params = new HashMap<>();
         params.put("query", query);
-        return findMany(SEARCH_FILMS_BY_TITLE_AND_DIRECTOR_QUERY, params).stream().peek(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-            film.setDirectors(directorRepository.findDirectorByFilmId(film.getId()));
-        }).collect(Collectors.toList());
+        return findAggregates(SEARCH_FILMS_BY_TITLE_AND_DIRECTOR_QUERY, params);
+    }
+
+    private List<Film> findAggregates(String query, Map<String, ?> params) {
+        return jdbc.query(query, params, filmExtractor);
     }
 }
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("friendRepository")
 @RequiredArgsConstructor
 public class JdbcFriendRepository implements FriendRepository {
@@ -43,7 +45,13 @@ public class JdbcFriendRepository implements FriendRepository {
             WHERE f.user_id = :userId
             """;
 
-    private static final String GET_COMMON_FRIENDS_QUERY = """
+    static final String GET_FRIEND_IDS_QUERY = """
+            SELECT friend_id
+            FROM friends
+            WHERE user_id = :userId
+            """;
+
+    static final String GET_COMMON_FRIENDS_QUERY = """
             SELECT u.user_id, u.email, u.login, u.name, u.birthday
             FROM users u
             WHERE u.user_id IN (
@@ -98,6 +106,13 @@ public class JdbcFriendRepository implements FriendRepository {
         return jdbc.query(GET_FRIENDS_QUERY, params, userRowMapper);
     }
 
+    @Override
+    public List<Long> getFriendIds(Long userId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        return jdbc.queryForList(GET_FRIEND_IDS_QUERY, params, Long.class);
+    }
+
     @Override
     public List<User> getCommonFriends(Long userId1, Long userId2) {
         Map<String, Object> params = new HashMap<>();
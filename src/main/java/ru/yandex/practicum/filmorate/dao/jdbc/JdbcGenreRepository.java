@@ -1,8 +1,11 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.dao.BaseRepository;
+import ru.yandex.practicum.filmorate.dao.ReferenceCache;
 import ru.yandex.practicum.filmorate.dao.interfaces.GenreRepository;
 import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
 import ru.yandex.practicum.filmorate.model.Genre;
@@ -11,9 +14,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Repository
+@Timed("filmorate.repository")
 public class JdbcGenreRepository extends BaseRepository<Genre> implements GenreRepository {
     private static final String FIND_ALL_GENRES_QUERY = "SELECT * FROM genres";
-    private static final String FIND_GENRE_BY_ID_QUERY = "SELECT * FROM genres WHERE genre_id = :genreId";
     private static final String FIND_FILM_GENRES_BY_ID_QUERY = """
             SELECT g.genre_id, g.name
             FROM film_genre fg
@@ -22,20 +25,27 @@ public class JdbcGenreRepository extends BaseRepository<Genre> implements GenreR
             ORDER BY g.genre_id
             """;
 
+    // Справочник жанров заполняется миграцией и меняется только новой миграцией
+    private volatile ReferenceCache<Genre> genres;
+
     public JdbcGenreRepository(NamedParameterJdbcOperations jdbc, GenreRowMapper mapper) {
         super(jdbc, mapper);
     }
 
+    @PostConstruct
+    public void refreshCache() {
+        genres = ReferenceCache.of(findMany(FIND_ALL_GENRES_QUERY, new HashMap<>()), Genre::getId,
+                genre -> genre.toBuilder().build());
+    }
+
     @Override
     public Optional<Genre> findGenreById(Long genreId) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("genreId", genreId);
-        return findOne(FIND_GENRE_BY_ID_QUERY, params);
+        return genres.get(genreId);
     }
 
     @Override
     public List<Genre> findAllGenres() {
-        return findMany(FIND_ALL_GENRES_QUERY, new HashMap<>());
+        return genres.all();
     }
 
     @Override
@@ -50,4 +60,3 @@ public class JdbcGenreRepository extends BaseRepository<Genre> implements GenreR
                         new TreeSet<>(Comparator.comparingLong(Genre::getId))));
     }
 }
-
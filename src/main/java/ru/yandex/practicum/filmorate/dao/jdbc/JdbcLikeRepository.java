@@ -1,34 +1,81 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 @Repository
+@Timed("filmorate.repository")
 @RequiredArgsConstructor
 public class JdbcLikeRepository implements LikeRepository {
+    private static final String INSERT_LIKE_QUERY = """
+            INSERT INTO likes (film_id, user_id)
+            SELECT :filmId, :userId
+            WHERE NOT EXISTS (SELECT 1 FROM likes WHERE film_id = :filmId AND user_id = :userId)
+            """;
+    private static final String DELETE_LIKE_QUERY = "DELETE FROM likes WHERE film_id = :filmId AND user_id = :userId";
+    private static final String UPDATE_LIKE_COUNT_QUERY = """
+            UPDATE films SET like_count = like_count + :delta WHERE film_id = :filmId
+            """;
+    static final String FIND_FILM_IDS_LIKED_BY_USER_QUERY = """
+            SELECT film_id FROM likes WHERE user_id = :userId ORDER BY film_id
+            """;
+    private static final String FIND_ALL_LIKES_QUERY = "SELECT user_id, film_id FROM likes ORDER BY user_id, film_id";
+
     private final NamedParameterJdbcOperations jdbc;
 
     @Override
-    public void addLike(Long filmId, Long userId) {
-        String sql = "INSERT INTO likes (film_id, user_id) VALUES (:filmId, :userId)";
-        removeLike(filmId,userId);
+    @Transactional
+    public boolean addLike(Long filmId, Long userId) {
         Map<String, Object> params = new HashMap<>();
         params.put("filmId", filmId);
         params.put("userId", userId);
-        jdbc.update(sql, params);
+        try {
+            if (jdbc.update(INSERT_LIKE_QUERY, params) == 0) {
+                return false;
+            }
+        } catch (DuplicateKeyException e) {
+            return false; // тот же лайк параллельно добавил другой запрос
+        }
+        params.put("delta", 1);
+        jdbc.update(UPDATE_LIKE_COUNT_QUERY, params);
+        return true;
     }
 
     @Override
-    public void removeLike(Long filmId, Long userId) {
-        String sql = "DELETE FROM likes WHERE film_id = :filmId AND user_id = :userId";
+    @Transactional
+    public boolean removeLike(Long filmId, Long userId) {
         Map<String, Object> params = new HashMap<>();
         params.put("filmId", filmId);
         params.put("userId", userId);
-        jdbc.update(sql, params);
+        if (jdbc.update(DELETE_LIKE_QUERY, params) == 0) {
+            return false;
+        }
+        params.put("delta", -1);
+        jdbc.update(UPDATE_LIKE_COUNT_QUERY, params);
+        return true;
+    }
+
+    @Override
+    public List<Long> findFilmIdsLikedByUser(Long userId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        return jdbc.queryForList(FIND_FILM_IDS_LIKED_BY_USER_QUERY, params, Long.class);
+    }
+
+    @Override
+    public void forEachLike(BiConsumer<Long, Long> userAndFilm) {
+        jdbc.query(FIND_ALL_LIKES_QUERY, new HashMap<>(),
+                (RowCallbackHandler) rs -> userAndFilm.accept(rs.getLong("user_id"), rs.getLong("film_id")));
     }
 }
@@ -1,36 +1,45 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
 import ru.yandex.practicum.filmorate.dao.BaseRepository;
+import ru.yandex.practicum.filmorate.dao.ReferenceCache;
 import ru.yandex.practicum.filmorate.dao.interfaces.MpaRepository;
 import ru.yandex.practicum.filmorate.mappers.MpaRatingRowMapper;
 import ru.yandex.practicum.filmorate.model.MpaRating;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Repository
+@Timed("filmorate.repository")
 public class JdbcMpaRepository extends BaseRepository<MpaRating> implements MpaRepository {
 
     private static final String FIND_ALL_QUERY = "SELECT * FROM mpa_ratings";
-    private static final String FIND_BY_ID_QUERY = "SELECT * FROM mpa_ratings WHERE mpa_id = :mpaId";
+
+    // Справочник рейтингов заполняется миграцией и меняется только новой миграцией
+    private volatile ReferenceCache<MpaRating> ratings;
 
     public JdbcMpaRepository(NamedParameterJdbcOperations jdbc, MpaRatingRowMapper mapper) {
         super(jdbc, mapper);
     }
 
+    @PostConstruct
+    public void refreshCache() {
+        ratings = ReferenceCache.of(findMany(FIND_ALL_QUERY, new HashMap<>()), MpaRating::getId,
+                mpa -> mpa.toBuilder().build());
+    }
+
     @Override
     public Optional<MpaRating> findMpaById(Long mpaId) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("mpaId", mpaId);
-        return findOne(FIND_BY_ID_QUERY, params);
+        return ratings.get(mpaId);
     }
 
     @Override
     public List<MpaRating> findAllMpa() {
-        return findMany(FIND_ALL_QUERY, new HashMap<>());
+        return ratings.all();
     }
 }
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
@@ -11,6 +12,7 @@ import ru.yandex.practicum.filmorate.model.Review;
 import java.util.*;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("reviewRepository")
 public class JdbcReviewRepository extends BaseRepository<Review> implements ReviewRepository {
 
@@ -47,7 +49,16 @@ public class JdbcReviewRepository extends BaseRepository<Review> implements Revi
             ;
             """;
 
-    private static final String GET_POPULAR_REVIEWS_BY_FILM_ID_QUERY = """
+    private static final String EXISTS_REVIEW_BY_ID_QUERY = """
+            select exists (
+                select 1
+                from reviews
+                where
+                    review_id = :reviewId
+            );
+            """;
+
+    static final String GET_POPULAR_REVIEWS_BY_FILM_ID_QUERY = """
                 select
                     *
                 from reviews
@@ -58,7 +69,7 @@ public class JdbcReviewRepository extends BaseRepository<Review> implements Revi
                 ;
             """;
 
-    private static final String GET_ALL_REVIEWS_QUERY = """
+    static final String GET_ALL_REVIEWS_QUERY = """
                 select
                     *
                 from reviews
@@ -67,6 +78,18 @@ public class JdbcReviewRepository extends BaseRepository<Review> implements Revi
                 ;
             """;
 
+    // условие фильтра подставляется в %s, страница продолжается после пары (useful, review_id)
+    static final String GET_REVIEWS_PAGE_QUERY = """
+                select
+                    *
+                from reviews
+                where
+                    %s
+                order by useful desc, review_id
+                limit :limit
+                ;
+            """;
+
     private static final String UPDATE_REVIEW_LIKE_QUERY = """
             update reviews
             set
@@ -131,6 +154,13 @@ public class JdbcReviewRepository extends BaseRepository<Review> implements Revi
         return findOne(FIND_REVIEW_BY_ID_QUERY, params);
     }
 
+    @Override
+    public boolean existsReviewById(Long reviewId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("reviewId", reviewId);
+        return exists(EXISTS_REVIEW_BY_ID_QUERY, params);
+    }
+
     @Override
     public Collection<Review> getPopularReviews(Long filmId, int count) {
         Map<String, Object> params = new HashMap<>();
@@ -146,6 +176,24 @@ public class JdbcReviewRepository extends BaseRepository<Review> implements Revi
         return findMany(GET_ALL_REVIEWS_QUERY, params);
     }
 
+    @Override
+    public List<Review> getReviewsAfter(Long filmId, Integer afterUseful, Long afterReviewId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", limit);
+        List<String> conditions = new ArrayList<>();
+        if (filmId != null) {
+            conditions.add("film_id = :filmId");
+            params.put("filmId", filmId);
+        }
+        if (afterUseful != null) {
+            conditions.add("(useful < :afterUseful or (useful = :afterUseful and review_id > :afterReviewId))");
+            params.put("afterUseful", afterUseful);
+            params.put("afterReviewId", afterReviewId);
+        }
+        String where = conditions.isEmpty() ? "true" : String.join(" and ", conditions);
+        return findMany(GET_REVIEWS_PAGE_QUERY.formatted(where), params);
+    }
+
     @Override
     public void addLikeReview(Long reviewId, Long userId) {
         Map<String, Object> params = new HashMap<>();
@@ -1,30 +1,40 @@
 package ru.yandex.practicum.filmorate.dao.jdbc;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.BaseRepository;
-import ru.yandex.practicum.filmorate.dao.interfaces.GenreRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.UserRepository;
-import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @Repository
+@Timed("filmorate.repository")
 @Qualifier("userRepository")
 public class JdbcUserRepository extends BaseRepository<User> implements UserRepository {
     private static final String FIND_ALL_USERS_QUERY = "SELECT * FROM users ORDER BY user_id";
+    static final String FIND_USERS_PAGE_QUERY = """
+            SELECT * FROM users WHERE user_id > :afterId ORDER BY user_id LIMIT :limit
+            """;
     private static final String FIND_USER_BY_ID_QUERY = "SELECT * FROM users WHERE user_id = :userId";
+    private static final String EXISTS_USER_BY_ID_QUERY = "SELECT EXISTS (SELECT 1 FROM users WHERE user_id = :userId)";
     private static final String INSERT_USERS_QUERY = "INSERT INTO users (email, login, name, birthday)" + "VALUES (:email, :login, :name, :birthday)";
     private static final String UPDATE_USER_QUERY = "UPDATE users SET email = :email, login = :login, name = :name, " + "birthday = :birthday WHERE user_id = :userId";
     private static final String DELETE_USER_QUERY = "DELETE FROM users WHERE user_id = :userId";
-    private static final String FIND_USER_RECOMMENDATIONS_QUERY = """
-            SELECT f.*, m.mpa_id AS mpa_id, m.name AS mpa_name, m.description AS mpa_description  FROM LIKES l3
-            LEFT JOIN FILMS f ON f.film_id = l3.FILM_ID
-            JOIN mpa_ratings m ON f.mpa_id = m.mpa_id
+    static final String DECREMENT_LIKE_COUNTS_OF_USER_QUERY = """
+            UPDATE films SET like_count = like_count - 1
+            WHERE film_id IN (SELECT film_id FROM likes WHERE user_id = :userId)
+            """;
+    // фильмы, которые лайкнули пользователи с наибольшим пересечением лайков, а сам пользователь — нет
+    static final String FIND_USER_RECOMMENDATIONS_QUERY = JdbcFilmRepository.FILM_AGGREGATE_QUERY.formatted("""
+            SELECT DISTINCT l3.film_id, l3.film_id AS sort_rank FROM LIKES l3
             WHERE l3.USER_ID in (SELECT l2.USER_ID FROM LIKES l2
                         WHERE l2.FILM_ID IN (SELECT FILM_ID FROM LIKES l
                                    WHERE l.USER_ID = :user_id)
@@ -39,12 +49,12 @@ public class JdbcUserRepository extends BaseRepository<User> implements UserRepo
                                LIMIT 1))
             AND l3.FILM_ID NOT IN (SELECT l4.film_id FROM LIKES l4
                 WHERE l4.USER_ID = :user_id)
-            """;
-    private final GenreRepository genreRepository;
+            """);
+    private final FilmExtractor filmExtractor;
 
-    public JdbcUserRepository(NamedParameterJdbcOperations jdbc, RowMapper<User> mapper, GenreRepository genreRepository) {
+    public JdbcUserRepository(NamedParameterJdbcOperations jdbc, RowMapper<User> mapper, FilmExtractor filmExtractor) {
         super(jdbc, mapper);
-        this.genreRepository = genreRepository;
+        this.filmExtractor = filmExtractor;
     }
 
     @Override
@@ -52,6 +62,19 @@ public class JdbcUserRepository extends BaseRepository<User> implements UserRepo
         return findMany(FIND_ALL_USERS_QUERY, new HashMap<>());
     }
 
+    @Override
+    public void streamAllUsers(Consumer<User> consumer) {
+        forEachPage(this::findUsersAfter, User::getId, consumer);
+    }
+
+    @Override
+    public List<User> findUsersAfter(long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterId", afterId);
+        params.put("limit", limit);
+        return findMany(FIND_USERS_PAGE_QUERY, params);
+    }
+
     @Override
     public Optional<User> getUserById(Long userId) {
         Map<String, Object> params = new HashMap<>();
@@ -59,6 +82,13 @@ public class JdbcUserRepository extends BaseRepository<User> implements UserRepo
         return findOne(FIND_USER_BY_ID_QUERY, params);
     }
 
+    @Override
+    public boolean existsUserById(Long userId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        return exists(EXISTS_USER_BY_ID_QUERY, params);
+    }
+
     @Override
     public User createUser(User user) {
         Map<String, Object> params = new HashMap<>();
@@ -86,9 +116,12 @@ public class JdbcUserRepository extends BaseRepository<User> implements UserRepo
     }
 
     @Override
+    @Transactional
     public boolean deleteUser(Long id) {
         Map<String, Object> params = new HashMap<>();
         params.put("userId", id);
+        // лайки пользователя удалятся каскадно, счётчики фильмов нужно поправить заранее
+        jdbc.update(DECREMENT_LIKE_COUNTS_OF_USER_QUERY, params);
         return delete(DELETE_USER_QUERY, params);
     }
 
@@ -96,11 +129,7 @@ public class JdbcUserRepository extends BaseRepository<User> implements UserRepo
     public Collection<Film> getUserRecommendations(Long id) {
         Map<String, Object> params = new HashMap<>();
         params.put("user_id", id);
-        Collection<Film> films = jdbc.query(FIND_USER_RECOMMENDATIONS_QUERY, params, new FilmRowMapper());
-        films.forEach(film -> {
-            film.setGenres(genreRepository.findGenreByFilmId(film.getId()));
-        });
-        return films;
+        return jdbc.query(FIND_USER_RECOMMENDATIONS_QUERY, params, filmExtractor);
     }
 }
 
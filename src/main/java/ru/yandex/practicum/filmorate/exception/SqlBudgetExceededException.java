@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class SqlBudgetExceededException extends InternalServerException {
+    public SqlBudgetExceededException(String scope, int budget) {
+        super(String.format("%s: превышен бюджет в %d SQL-запросов", scope, budget));
+    }
+}
@@ -0,0 +1,235 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.interfaces.DirectorRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.FilmRepository;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поиск подстроки в названиях фильмов и именах режиссёров по инвертированному индексу триграмм.
+ * Триграммы запроса сужают круг кандидатов, затем каждый кандидат проверяется на вхождение подстроки,
+ * поэтому результат совпадает с {@code LOWER(name) LIKE '%query%'}. Запросы короче трёх символов
+ * проверяются перебором нормализованных строк в памяти.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FilmSearchIndex {
+    private static final int GRAM = 3;
+
+    private final FilmRepository filmRepository;
+    private final DirectorRepository directorRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextIndex titles = new TextIndex();
+    private final TextIndex directorNames = new TextIndex();
+    private final Map<Long, Set<Long>> filmsByDirector = new HashMap<>();
+    private final Map<Long, Set<Long>> directorsByFilm = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Collection<Film> films = filmRepository.findAllFilms();
+        Collection<Director> directors = directorRepository.findAllDirectors();
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            directorNames.clear();
+            filmsByDirector.clear();
+            directorsByFilm.clear();
+            directors.forEach(director -> directorNames.put(director.getId(), director.getName()));
+            films.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, фильмов: {}, режиссёров: {}", films.size(), directors.size());
+    }
+
+    /**
+     * Индексирует название и режиссёров фильма; режиссёры должны быть загружены вместе с именами.
+     */
+    public void putFilm(Film film) {
+        lock.writeLock().lock();
+        try {
+            removeFilmLinks(film.getId());
+            put(film);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeFilm(Long filmId) {
+        lock.writeLock().lock();
+        try {
+            removeFilmLinks(filmId);
+            titles.remove(filmId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putDirector(Director director) {
+        lock.writeLock().lock();
+        try {
+            directorNames.put(director.getId(), director.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeDirector(Long directorId) {
+        lock.writeLock().lock();
+        try {
+            directorNames.remove(directorId);
+            Set<Long> filmIds = filmsByDirector.remove(directorId);
+            if (filmIds != null) {
+                filmIds.forEach(filmId -> directorsByFilm.getOrDefault(filmId, new HashSet<>()).remove(directorId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ID фильмов, у которых запрос входит в название и/или в имя одного из режиссёров, без упорядочивания.
+     */
+    public Set<Long> search(String query, boolean byTitle, boolean byDirector) {
+        String normalized = normalize(query);
+        Set<Long> filmIds = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            if (byTitle) {
+                filmIds.addAll(titles.find(normalized));
+            }
+            if (byDirector) {
+                for (Long directorId : directorNames.find(normalized)) {
+                    filmIds.addAll(filmsByDirector.getOrDefault(directorId, Set.of()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return filmIds;
+    }
+
+    /**
+     * Сворачивает регистр посимвольно и без учёта локали JVM, поэтому «Ёлки» и «ёЛКИ» совпадают на любой машине.
+     * Проход через верхний регистр выравнивает символы с несколькими строчными формами.
+     */
+    static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        text.codePoints()
+                .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+                .forEach(builder::appendCodePoint);
+        return builder.toString();
+    }
+
+    private void put(Film film) {
+        titles.put(film.getId(), film.getName());
+        Set<Long> directorIds = new HashSet<>();
+        if (film.getDirectors() != null) {
+            for (Director director : film.getDirectors()) {
+                directorIds.add(director.getId());
+                filmsByDirector.computeIfAbsent(director.getId(), id -> new HashSet<>()).add(film.getId());
+                if (director.getName() != null) {
+                    directorNames.put(director.getId(), director.getName());
+                }
+            }
+        }
+        directorsByFilm.put(film.getId(), directorIds);
+    }
+
+    private void removeFilmLinks(Long filmId) {
+        Set<Long> directorIds = directorsByFilm.remove(filmId);
+        if (directorIds == null) {
+            return;
+        }
+        for (Long directorId : directorIds) {
+            Set<Long> filmIds = filmsByDirector.get(directorId);
+            if (filmIds != null) {
+                filmIds.remove(filmId);
+                if (filmIds.isEmpty()) {
+                    filmsByDirector.remove(directorId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Нормализованные строки по ID и списки ID по каждой их триграмме.
+     */
+    private static final class TextIndex {
+        private final Map<Long, String> texts = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        void put(Long id, String text) {
+            remove(id);
+            String normalized = normalize(text);
+            texts.put(id, normalized);
+            for (String gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String normalized = texts.remove(id);
+            if (normalized == null) {
+                return;
+            }
+            for (String gram : grams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        void clear() {
+            texts.clear();
+            postings.clear();
+        }
+
+        List<Long> find(String normalizedQuery) {
+            Collection<Long> candidates;
+            if (normalizedQuery.length() < GRAM) {
+                candidates = texts.keySet();
+            } else {
+                List<Set<Long>> lists = new ArrayList<>();
+                for (String gram : grams(normalizedQuery)) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids == null) {
+                        return List.of();
+                    }
+                    lists.add(ids);
+                }
+                lists.sort(Comparator.comparingInt(Set::size));
+                candidates = new ArrayList<>(lists.get(0));
+                for (Set<Long> ids : lists.subList(1, lists.size())) {
+                    candidates.retainAll(ids);
+                }
+            }
+            List<Long> result = new ArrayList<>();
+            for (Long id : candidates) {
+                if (texts.get(id).contains(normalizedQuery)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private static Set<String> grams(String normalized) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + GRAM <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + GRAM));
+            }
+            return grams;
+        }
+    }
+}
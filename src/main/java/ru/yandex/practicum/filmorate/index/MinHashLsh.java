@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.index;
+
+import java.util.*;
+
+/**
+ * MinHash-сигнатуры множеств лайков и LSH-корзины по полосам сигнатуры.
+ * Пользователи, у которых совпала хотя бы одна полоса, становятся кандидатами в соседи;
+ * вероятность совпадения растёт с коэффициентом Жаккара их лайков, поэтому похожие
+ * пользователи находятся без перебора всех остальных.
+ * Сигнатура пересчитывается по полному массиву лайков: при удалении лайка минимум нельзя «откатить».
+ */
+final class MinHashLsh {
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> buckets;
+
+    MinHashLsh(int bands, int rows) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("Число полос и строк LSH должно быть положительным");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        // фиксированное зерно: одинаковые лайки дают одинаковые сигнатуры между перезапусками
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Пересчитывает сигнатуру пользователя по отсортированному массиву лайков; пустой массив убирает пользователя.
+     */
+    synchronized void put(long userId, long[] likes) {
+        remove(userId);
+        if (likes == null || likes.length == 0) {
+            return;
+        }
+        int[] signature = signature(likes);
+        signatures.put(userId, signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new HashSet<>()).add(userId);
+        }
+    }
+
+    synchronized void remove(long userId) {
+        int[] signature = signatures.remove(userId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            Map<Long, Set<Long>> bandBuckets = buckets.get(band);
+            long key = bandKey(signature, band);
+            Set<Long> users = bandBuckets.get(key);
+            users.remove(userId);
+            if (users.isEmpty()) {
+                bandBuckets.remove(key);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        signatures.clear();
+        buckets.forEach(Map::clear);
+    }
+
+    /**
+     * Пользователи, попавшие хотя бы в одну корзину вместе с {@code userId}, без него самого.
+     */
+    synchronized Set<Long> candidates(long userId) {
+        int[] signature = signatures.get(userId);
+        if (signature == null) {
+            return Set.of();
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            candidates.addAll(buckets.get(band).get(bandKey(signature, band)));
+        }
+        candidates.remove(userId);
+        return candidates;
+    }
+
+    private int[] signature(long[] likes) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long filmId : likes) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (mix(filmId ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = 1;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 31 + signature[i];
+        }
+        return mix(key);
+    }
+
+    // финализатор SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,204 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.interfaces.FilmRepository;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Рейтинг популярности фильмов в памяти, разложенный по ключам (жанр, год).
+ * Каждый фильм лежит в рейтинге «все фильмы», в рейтинге своего года и в рейтингах своих жанров
+ * (с годом и без), поэтому топ по любому фильтру читается без обращения к базе.
+ * Число лайков хранится в {@link LongIntHashMap}, порядок внутри ключа — в {@link PopularityRanking}.
+ * Порядок совпадает с SQL: больше лайков — выше, при равенстве меньший ID раньше.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularityIndex {
+    public static final int ANY_YEAR = 2999;
+
+    private final FilmRepository filmRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap likes = new LongIntHashMap();
+    private final Map<Long, List<Key>> filmKeys = new HashMap<>();
+    private final Map<Key, PopularityRanking> rankings = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Collection<Film> allFilms = filmRepository.findAllFilms();
+        Map<Long, Integer> likeCounts = filmRepository.getLikeCounts();
+        lock.writeLock().lock();
+        try {
+            likes.clear();
+            filmKeys.clear();
+            rankings.clear();
+            for (Film film : allFilms) {
+                add(film.getId(), keysOf(film), likeCounts.getOrDefault(film.getId(), 0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс популярности построен, фильмов: {}", allFilms.size());
+    }
+
+    /**
+     * Добавляет фильм или обновляет его год и жанры, сохраняя накопленное число лайков.
+     */
+    public void putFilm(Film film) {
+        List<Key> keys = keysOf(film);
+        lock.writeLock().lock();
+        try {
+            int filmLikes = likes.get(film.getId(), 0);
+            remove(film.getId());
+            add(film.getId(), keys, filmLikes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeFilm(Long filmId) {
+        lock.writeLock().lock();
+        try {
+            remove(filmId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void likeAdded(Long filmId) {
+        changeLikes(filmId, 1);
+    }
+
+    public void likeRemoved(Long filmId) {
+        changeLikes(filmId, -1);
+    }
+
+    public List<Long> getTopFilmIds(int count, Long genreId, int year) {
+        return getTopFilmIdsAfter(count, genreId, year, Integer.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /**
+     * Продолжение рейтинга после фильма {@code afterFilmId}, у которого было {@code afterLikes} лайков.
+     */
+    public List<Long> getTopFilmIdsAfter(int count, Long genreId, int year, int afterLikes, long afterFilmId) {
+        lock.readLock().lock();
+        try {
+            PopularityRanking ranking = rankings.get(new Key(genreId, year));
+            List<Long> filmIds = new ArrayList<>(Math.min(count, likes.size()));
+            if (ranking != null) {
+                ranking.topAfter(afterLikes, afterFilmId, count, filmIds);
+            }
+            return filmIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getLikes(long filmId) {
+        lock.readLock().lock();
+        try {
+            return likes.get(filmId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сверяет первые {@code count} фильмов каждого ключа индекса с выборкой популярных фильмов из базы.
+     * Возвращает описания расхождений; пустой список — индекс согласован.
+     * Имеет смысл, пока лайки не меняются параллельно со сверкой.
+     */
+    public List<String> checkConsistency(int count) {
+        Set<Key> keys = new HashSet<>();
+        keys.add(new Key(null, ANY_YEAR));
+        lock.readLock().lock();
+        try {
+            keys.addAll(rankings.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<String> mismatches = new ArrayList<>();
+        for (Key key : keys) {
+            List<Long> expected = filmRepository.getPopularFilmIds(count, key.genreId(), key.year());
+            List<Long> actual = getTopFilmIds(count, key.genreId(), key.year());
+            if (!expected.equals(actual)) {
+                mismatches.add("жанр " + key.genreId() + ", год " + key.year() + ": в базе " + expected
+                        + ", в индексе " + actual);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            log.warn("Индекс популярности расходится с базой: {}", mismatches);
+        }
+        return mismatches;
+    }
+
+    private void changeLikes(Long filmId, int delta) {
+        lock.writeLock().lock();
+        try {
+            if (!likes.containsKey(filmId)) {
+                return;
+            }
+            int oldLikes = likes.get(filmId, 0);
+            int newLikes = Math.max(0, oldLikes + delta);
+            likes.put(filmId, newLikes);
+            for (Key key : filmKeys.get(filmId)) {
+                rankings.get(key).move(filmId, oldLikes, newLikes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(long filmId, List<Key> keys, int filmLikes) {
+        likes.put(filmId, filmLikes);
+        filmKeys.put(filmId, keys);
+        for (Key key : keys) {
+            rankings.computeIfAbsent(key, k -> new PopularityRanking()).add(filmId, filmLikes);
+        }
+    }
+
+    private void remove(long filmId) {
+        List<Key> keys = filmKeys.remove(filmId);
+        if (keys == null) {
+            return;
+        }
+        int filmLikes = likes.get(filmId, 0);
+        likes.remove(filmId);
+        for (Key key : keys) {
+            PopularityRanking ranking = rankings.get(key);
+            ranking.remove(filmId, filmLikes);
+            if (ranking.isEmpty()) {
+                rankings.remove(key);
+            }
+        }
+    }
+
+    private static List<Key> keysOf(Film film) {
+        Integer year = film.getReleaseDate() == null ? null : film.getReleaseDate().getYear();
+        List<Long> genreIds = film.getGenres() == null ? List.of()
+                : film.getGenres().stream().map(Genre::getId).distinct().toList();
+        Set<Key> keys = new LinkedHashSet<>();
+        keys.add(new Key(null, ANY_YEAR));
+        if (year != null) {
+            keys.add(new Key(null, year));
+        }
+        for (Long genreId : genreIds) {
+            keys.add(new Key(genreId, ANY_YEAR));
+            if (year != null) {
+                keys.add(new Key(genreId, year));
+            }
+        }
+        return List.copyOf(keys);
+    }
+
+    private record Key(Long genreId, int year) {
+    }
+}
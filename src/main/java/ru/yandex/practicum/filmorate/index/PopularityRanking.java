@@ -0,0 +1,162 @@
+package ru.yandex.practicum.filmorate.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Рейтинг фильмов одного ключа (жанр, год): корзины по числу лайков, от большего к меньшему,
+ * внутри корзины — ID по возрастанию в отсортированных блоках не длиннее {@value Bucket#BLOCK_SIZE}.
+ * Лайк переносит фильм в соседнюю корзину за O(log F + BLOCK_SIZE), в том числе из корзины
+ * без лайков, где обычно лежит большая часть каталога; чтение первых N — O(N + log F).
+ */
+final class PopularityRanking {
+    private final NavigableMap<Integer, Bucket> buckets = new TreeMap<>();
+    private int size;
+
+    void add(long filmId, int likes) {
+        if (buckets.computeIfAbsent(likes, k -> new Bucket()).add(filmId)) {
+            size++;
+        }
+    }
+
+    void remove(long filmId, int likes) {
+        Bucket bucket = buckets.get(likes);
+        if (bucket != null && bucket.remove(filmId)) {
+            size--;
+            if (bucket.isEmpty()) {
+                buckets.remove(likes);
+            }
+        }
+    }
+
+    void move(long filmId, int oldLikes, int newLikes) {
+        remove(filmId, oldLikes);
+        add(filmId, newLikes);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void top(int count, List<Long> result) {
+        topAfter(Integer.MAX_VALUE, Long.MIN_VALUE, count, result);
+    }
+
+    /**
+     * Первые {@code count} фильмов, стоящих в рейтинге после фильма с указанными лайками и ID.
+     */
+    void topAfter(int afterLikes, long afterFilmId, int count, List<Long> result) {
+        for (Map.Entry<Integer, Bucket> entry : buckets.headMap(afterLikes, true).descendingMap().entrySet()) {
+            if (result.size() == count) {
+                return;
+            }
+            entry.getValue().collectAfter(entry.getKey() == afterLikes ? afterFilmId : Long.MIN_VALUE, count, result);
+        }
+    }
+
+    /**
+     * ID фильмов корзины. Блоки найдены по ключу в {@link TreeMap}: ключ блока не больше его первого ID
+     * и больше последнего ID предыдущего блока. Полный блок делится пополам.
+     */
+    private static final class Bucket {
+        static final int BLOCK_SIZE = 512;
+
+        private final TreeMap<Long, Block> blocks = new TreeMap<>();
+
+        boolean isEmpty() {
+            return blocks.isEmpty();
+        }
+
+        boolean add(long filmId) {
+            Map.Entry<Long, Block> entry = blocks.floorEntry(filmId);
+            Block block;
+            if (entry != null) {
+                block = entry.getValue();
+            } else if (blocks.isEmpty()) {
+                block = new Block();
+                blocks.put(filmId, block);
+            } else {
+                // ID меньше всех в корзине: первый блок получает новый ключ
+                block = blocks.pollFirstEntry().getValue();
+                blocks.put(filmId, block);
+            }
+            if (!block.add(filmId)) {
+                return false;
+            }
+            if (block.size == BLOCK_SIZE) {
+                Block upper = block.splitUpper();
+                blocks.put(upper.filmIds[0], upper);
+            }
+            return true;
+        }
+
+        boolean remove(long filmId) {
+            Map.Entry<Long, Block> entry = blocks.floorEntry(filmId);
+            if (entry == null || !entry.getValue().remove(filmId)) {
+                return false;
+            }
+            if (entry.getValue().size == 0) {
+                blocks.remove(entry.getKey());
+            }
+            return true;
+        }
+
+        void collectAfter(long afterFilmId, int count, List<Long> result) {
+            Long from = blocks.floorKey(afterFilmId);
+            for (Block block : (from == null ? blocks : blocks.tailMap(from, true)).values()) {
+                int position = Arrays.binarySearch(block.filmIds, 0, block.size, afterFilmId);
+                for (int i = position >= 0 ? position + 1 : -position - 1; i < block.size; i++) {
+                    if (result.size() == count) {
+                        return;
+                    }
+                    result.add(block.filmIds[i]);
+                }
+            }
+        }
+    }
+
+    private static final class Block {
+        private long[] filmIds = new long[4];
+        private int size;
+
+        boolean add(long filmId) {
+            int position = Arrays.binarySearch(filmIds, 0, size, filmId);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (size == filmIds.length) {
+                filmIds = Arrays.copyOf(filmIds, Math.min(size * 2, Bucket.BLOCK_SIZE));
+            }
+            System.arraycopy(filmIds, position, filmIds, position + 1, size - position);
+            filmIds[position] = filmId;
+            size++;
+            return true;
+        }
+
+        boolean remove(long filmId) {
+            int position = Arrays.binarySearch(filmIds, 0, size, filmId);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(filmIds, position + 1, filmIds, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Отдаёт верхнюю половину ID новому блоку.
+         */
+        Block splitUpper() {
+            int half = size / 2;
+            Block upper = new Block();
+            upper.filmIds = Arrays.copyOfRange(filmIds, half, Bucket.BLOCK_SIZE);
+            upper.size = size - half;
+            size = half;
+            return upper;
+        }
+    }
+}
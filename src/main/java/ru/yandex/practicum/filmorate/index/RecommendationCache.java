@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.index;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine.Recommendation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Кеш готовых рекомендаций по пользователю и режиму с вытеснением W-TinyLFU (Caffeine).
+ * Изменение лайков не удаляет записи, а ставит их на фоновое пересчитывание: до его окончания
+ * отдаётся прежний результат, из которого только выбрасываются фильмы, уже лайкнутые пользователем.
+ * Пересчитываются сам пользователь, те, у кого он был в соседях, и те, кто лайкнул тот же фильм.
+ * Промах считается в потоке запроса вне блокировок кеша: {@code LoadingCache.get} вызывает загрузчик
+ * внутри synchronized-секции ConcurrentHashMap, и на JDK 21 виртуальные потоки, ждущие входа в неё,
+ * закрепляют потоки-носители на всё время подсчёта. Одновременные промахи по одному ключу считаются
+ * независимо, в кеше остаётся первый результат.
+ * Статистика попаданий, промахов и вытеснений публикуется в метриках {@code cache.*{cache=recommendations}}.
+ */
+@Slf4j
+@Component
+public class RecommendationCache {
+    private static final String CACHE_NAME = "recommendations";
+
+    private final RecommendationEngine recommendationEngine;
+    private final Executor refresher;
+    private final LoadingCache<Key, Recommendation> cache;
+
+    @Autowired
+    public RecommendationCache(RecommendationEngine recommendationEngine,
+                               MeterRegistry meterRegistry,
+                               @Value("${filmorate.recommendations.cache.max-size:10000}") long maxSize,
+                               @Value("${filmorate.recommendations.cache.refresh-after:PT5M}") Duration refreshAfter) {
+        this(recommendationEngine, maxSize, refreshAfter, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-refresher");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    RecommendationCache(RecommendationEngine recommendationEngine, long maxSize, Duration refreshAfter,
+                        Executor refresher) {
+        this.recommendationEngine = recommendationEngine;
+        this.refresher = refresher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refresher)
+                .recordStats()
+                .build(key -> recommendationEngine.recommend(key.userId(), key.mode()));
+    }
+
+    public List<Long> get(Long userId) {
+        return get(userId, recommendationEngine.getDefaultMode());
+    }
+
+    public List<Long> get(Long userId, RecommendationMode mode) {
+        Key key = new Key(userId, mode);
+        Recommendation recommendation = cache.getIfPresent(key);
+        if (recommendation == null) {
+            Recommendation computed = recommendationEngine.recommend(userId, mode);
+            recommendation = cache.asMap().putIfAbsent(key, computed);
+            if (recommendation == null) {
+                recommendation = computed;
+            }
+        }
+        return recommendation.filmIds().stream()
+                .filter(filmId -> !recommendationEngine.hasLiked(userId, filmId))
+                .toList();
+    }
+
+    /**
+     * Вызывается после того, как лайк уже учтён в {@link RecommendationEngine}.
+     */
+    public void likeChanged(Long userId, Long filmId) {
+        refresher.execute(() -> refreshAffected(userId, filmId));
+    }
+
+    public void userRemoved(Long userId) {
+        refresher.execute(() -> {
+            cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+            refreshAffected(userId, null);
+        });
+    }
+
+    /**
+     * Удалённый фильм меняет пересечения всех, кто его лайкал, поэтому кеш сбрасывается целиком.
+     */
+    public void filmRemoved(Long filmId) {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void refreshAffected(Long userId, Long filmId) {
+        int refreshed = 0;
+        for (Map.Entry<Key, Recommendation> entry : cache.asMap().entrySet()) {
+            Long cachedUserId = entry.getKey().userId();
+            if (cachedUserId.equals(userId)
+                    || Arrays.binarySearch(entry.getValue().neighbourIds(), userId) >= 0
+                    || filmId != null && recommendationEngine.hasLiked(cachedUserId, filmId)) {
+                cache.refresh(entry.getKey());
+                refreshed++;
+            }
+        }
+        log.debug("Рекомендации поставлены на пересчёт после изменения у пользователя {}: {}", userId, refreshed);
+    }
+
+    private record Key(Long userId, RecommendationMode mode) {
+    }
+}
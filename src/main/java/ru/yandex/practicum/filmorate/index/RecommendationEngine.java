@@ -0,0 +1,252 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Матрица лайков «пользователь → фильмы» в памяти для рекомендаций.
+ * Лайки пользователя хранятся отсортированным массивом ID и заменяются целиком при каждом изменении,
+ * поэтому чтение идёт без блокировок по неизменяемым снимкам.
+ * Семантика та же, что у SQL-запроса рекомендаций: берутся все пользователи с максимальным
+ * ненулевым пересечением лайков, и рекомендуются их фильмы, которые пользователь ещё не лайкнул.
+ * В приближённом режиме пересечения считаются только с кандидатами из {@link MinHashLsh},
+ * режим по умолчанию задаётся свойством {@code filmorate.recommendations.mode}.
+ */
+@Slf4j
+@Component
+public class RecommendationEngine {
+    private static final long[] EMPTY = new long[0];
+    // при таком перекосе размеров бинарный поиск по большему массиву выгоднее слияния
+    private static final int GALLOP_RATIO = 16;
+
+    private final LikeRepository likeRepository;
+    private final Map<Long, long[]> likesByUser = new ConcurrentHashMap<>();
+    private final MinHashLsh lsh;
+    private final RecommendationMode defaultMode;
+
+    public RecommendationEngine(LikeRepository likeRepository,
+                                @Value("${filmorate.recommendations.mode:exact}") String defaultMode,
+                                @Value("${filmorate.recommendations.lsh.bands:32}") int bands,
+                                @Value("${filmorate.recommendations.lsh.rows:2}") int rows) {
+        this.likeRepository = likeRepository;
+        this.defaultMode = RecommendationMode.valueOf(defaultMode.trim().toUpperCase(Locale.ROOT));
+        this.lsh = new MinHashLsh(bands, rows);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        MatrixBuilder builder = new MatrixBuilder();
+        likeRepository.forEachLike(builder);
+        Map<Long, long[]> loaded = builder.build();
+        likesByUser.clear();
+        likesByUser.putAll(loaded);
+        lsh.clear();
+        loaded.forEach(lsh::put);
+        log.info("Матрица лайков для рекомендаций построена, пользователей: {}", loaded.size());
+    }
+
+    public void likeAdded(Long userId, Long filmId) {
+        likesByUser.compute(userId, (id, likes) -> {
+            long[] current = likes == null ? EMPTY : likes;
+            int position = Arrays.binarySearch(current, filmId);
+            if (position >= 0) {
+                return current;
+            }
+            position = -position - 1;
+            long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            updated[position] = filmId;
+            System.arraycopy(current, position, updated, position + 1, current.length - position);
+            lsh.put(id, updated);
+            return updated;
+        });
+    }
+
+    public void likeRemoved(Long userId, Long filmId) {
+        likesByUser.computeIfPresent(userId, (id, likes) -> {
+            long[] updated = without(likes, filmId);
+            if (updated != likes) {
+                lsh.put(id, updated);
+            }
+            return updated;
+        });
+    }
+
+    public void removeUser(Long userId) {
+        likesByUser.computeIfPresent(userId, (id, likes) -> {
+            lsh.remove(id);
+            return null;
+        });
+    }
+
+    public void removeFilm(Long filmId) {
+        for (Long userId : likesByUser.keySet()) {
+            likeRemoved(userId, filmId);
+        }
+    }
+
+    public RecommendationMode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public boolean hasLiked(Long userId, Long filmId) {
+        return Arrays.binarySearch(likesByUser.getOrDefault(userId, EMPTY), filmId) >= 0;
+    }
+
+    /**
+     * ID рекомендованных фильмов по возрастанию в режиме по умолчанию.
+     */
+    public List<Long> recommend(Long userId) {
+        return recommend(userId, defaultMode).filmIds();
+    }
+
+    public Recommendation recommend(Long userId, RecommendationMode mode) {
+        long[] own = likesByUser.getOrDefault(userId, EMPTY);
+        if (own.length == 0) {
+            return Recommendation.EMPTY;
+        }
+        Collection<Long> others = mode == RecommendationMode.APPROXIMATE ? lsh.candidates(userId) : likesByUser.keySet();
+        int bestOverlap = 0;
+        List<Long> neighbourIds = new ArrayList<>();
+        List<long[]> neighbours = new ArrayList<>();
+        for (Long otherId : others) {
+            long[] likes = likesByUser.get(otherId);
+            if (otherId.equals(userId) || likes == null) {
+                continue;
+            }
+            int overlap = intersectionSize(own, likes);
+            if (overlap == 0 || overlap < bestOverlap) {
+                continue;
+            }
+            if (overlap > bestOverlap) {
+                bestOverlap = overlap;
+                neighbourIds.clear();
+                neighbours.clear();
+            }
+            neighbourIds.add(otherId);
+            neighbours.add(likes);
+        }
+        return new Recommendation(unionExcept(neighbours, own),
+                neighbourIds.stream().mapToLong(Long::longValue).sorted().toArray());
+    }
+
+    /**
+     * Размер пересечения двух отсортированных массивов: слиянием для сопоставимых размеров,
+     * бинарным поиском с галопом по большему массиву при сильном перекосе.
+     */
+    static int intersectionSize(long[] a, long[] b) {
+        if (a.length > b.length) {
+            long[] swap = a;
+            a = b;
+            b = swap;
+        }
+        if (a.length == 0) {
+            return 0;
+        }
+        int count = 0;
+        if ((long) a.length * GALLOP_RATIO < b.length) {
+            int from = 0;
+            for (long value : a) {
+                int position = Arrays.binarySearch(b, from, b.length, value);
+                if (position >= 0) {
+                    count++;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+                if (from == b.length) {
+                    break;
+                }
+            }
+            return count;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static List<Long> unionExcept(List<long[]> neighbours, long[] own) {
+        TreeSet<Long> result = new TreeSet<>();
+        for (long[] likes : neighbours) {
+            for (long filmId : likes) {
+                if (Arrays.binarySearch(own, filmId) < 0) {
+                    result.add(filmId);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static long[] without(long[] likes, long filmId) {
+        int position = Arrays.binarySearch(likes, filmId);
+        if (position < 0) {
+            return likes;
+        }
+        if (likes.length == 1) {
+            return null; // пользователь без лайков не хранится
+        }
+        long[] updated = new long[likes.length - 1];
+        System.arraycopy(likes, 0, updated, 0, position);
+        System.arraycopy(likes, position + 1, updated, position, likes.length - position - 1);
+        return updated;
+    }
+
+    /**
+     * Собирает массивы из потока лайков, упорядоченного по пользователю и фильму.
+     */
+    private static final class MatrixBuilder implements BiConsumer<Long, Long> {
+        private final Map<Long, long[]> likesByUser = new HashMap<>();
+        private long[] buffer = new long[16];
+        private int size;
+        private Long currentUser;
+
+        @Override
+        public void accept(Long userId, Long filmId) {
+            if (!userId.equals(currentUser)) {
+                flush();
+                currentUser = userId;
+            }
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = filmId;
+        }
+
+        Map<Long, long[]> build() {
+            flush();
+            return likesByUser;
+        }
+
+        private void flush() {
+            if (size > 0) {
+                likesByUser.put(currentUser, Arrays.copyOf(buffer, size));
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * Рекомендованные фильмы по возрастанию ID и отсортированные ID соседей, по которым они выбраны.
+     */
+    public record Recommendation(List<Long> filmIds, long[] neighbourIds) {
+        static final Recommendation EMPTY = new Recommendation(List.of(), new long[0]);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.index;
+
+/**
+ * Способ поиска соседей для рекомендаций: полный перебор пользователей или кандидаты из LSH-корзин.
+ */
+public enum RecommendationMode {
+    EXACT,
+    APPROXIMATE
+}
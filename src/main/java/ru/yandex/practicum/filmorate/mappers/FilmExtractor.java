@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.mappers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Собирает фильмы из денормализованной выборки film + mpa + genres + directors.
+ * Строки одного фильма должны идти подряд: фильм отдаётся дальше, как только начинается следующий.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilmExtractor implements ResultSetExtractor<List<Film>> {
+    private final FilmRowMapper filmRowMapper;
+
+    @Override
+    public List<Film> extractData(ResultSet resultSet) throws SQLException {
+        List<Film> films = new ArrayList<>();
+        extract(resultSet, films::add);
+        return films;
+    }
+
+    public void extract(ResultSet resultSet, Consumer<Film> consumer) throws SQLException {
+        Film current = null;
+        while (resultSet.next()) {
+            long filmId = resultSet.getLong("film_id");
+            if (current == null || current.getId() != filmId) {
+                if (current != null) {
+                    consumer.accept(current);
+                }
+                current = filmRowMapper.mapRow(resultSet, resultSet.getRow());
+                current.setGenres(new TreeSet<>(Comparator.comparingLong(Genre::getId)));
+                current.setDirectors(new TreeSet<>(Comparator.comparingLong(Director::getId)));
+            }
+            long genreId = resultSet.getLong("genre_id");
+            if (!resultSet.wasNull()) {
+                current.getGenres().add(new Genre(genreId, resultSet.getString("genre_name")));
+            }
+            long directorId = resultSet.getLong("director_id");
+            if (!resultSet.wasNull()) {
+                current.getDirectors().add(new Director(directorId, resultSet.getString("director_name")));
+            }
+        }
+        if (current != null) {
+            consumer.accept(current);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
+
+import java.util.Locale;
+
+/**
+ * Проверяет, что обработчик HTTP-запроса уложился в бюджет SQL-запросов ({@link SqlBudget}).
+ * Режим {@code filmorate.sql-budget.mode}: {@code log} — предупреждение в лог после ответа,
+ * {@code fail} — запрос сверх бюджета падает с {@link ru.yandex.practicum.filmorate.exception.SqlBudgetExceededException}
+ * (режим тестов), {@code off} — без проверки.
+ */
+@Slf4j
+@Component
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".start";
+
+    private final Mode mode;
+    private final int defaultBudget;
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+
+    public SqlBudgetInterceptor(@Value("${filmorate.sql-budget.mode:log}") String mode,
+                                @Value("${filmorate.sql-budget.default:10}") int defaultBudget) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (mode == Mode.OFF || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        request.setAttribute(START_ATTRIBUTE, SqlStatementCounter.current());
+        if (mode == Mode.FAIL) {
+            SqlStatementCounter.enforce(budget(handler), endpoint(request));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Integer start)) {
+            return;
+        }
+        SqlStatementCounter.release();
+        int statements = SqlStatementCounter.current() - start;
+        int budget = budget(handler);
+        if (mode == Mode.LOG && statements > budget) {
+            log.warn("{}: {} SQL-запросов при бюджете {}", endpoint(request), statements, budget);
+        }
+    }
+
+    // тело потокового ответа пишется в другом потоке, его запросы не считаются
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SqlStatementCounter.release();
+    }
+
+    private int budget(Object handler) {
+        SqlBudget annotation = ((HandlerMethod) handler).getMethodAnnotation(SqlBudget.class);
+        return annotation == null ? defaultBudget : annotation.value();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern);
+    }
+}
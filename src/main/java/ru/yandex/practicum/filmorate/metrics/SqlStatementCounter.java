@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import ru.yandex.practicum.filmorate.exception.SqlBudgetExceededException;
+
+/**
+ * Счётчик SQL-запросов, отправленных в базу в рамках текущей единицы работы (обычно HTTP-запроса).
+ * Счёт ведёт {@link StatementCountingDataSource}; вне {@link #start()}/{@link #stop()} запросы не считаются.
+ * Вложенный {@link #start()} продолжает уже открытый счёт: так тест может обернуть запрос MockMvc
+ * и получить точное число запросов к базе.
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Открывает счёт в текущем потоке; {@code false}, если он уже открыт снаружи и закрывать его не нам.
+     */
+    public static boolean start() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new Count());
+        return true;
+    }
+
+    /**
+     * Завершает счёт в текущем потоке и возвращает число запросов; 0, если счёт не начинался.
+     */
+    public static int stop() {
+        Count count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count.statements;
+    }
+
+    public static int current() {
+        Count count = CURRENT.get();
+        return count == null ? 0 : count.statements;
+    }
+
+    /**
+     * Выполняет работу вне счёта текущего потока: её запросы не считаются и не проверяются бюджетом.
+     * Для чужой работы, которую поток выполняет попутно, например записи накопленных событий ленты.
+     */
+    public static void uncounted(Runnable work) {
+        Count count = CURRENT.get();
+        CURRENT.remove();
+        try {
+            work.run();
+        } finally {
+            if (count != null) {
+                CURRENT.set(count);
+            }
+        }
+    }
+
+    /**
+     * Следующий запрос сверх {@code budget}, считая от текущего, завершится {@link SqlBudgetExceededException}.
+     */
+    public static void enforce(int budget, String scope) {
+        Count count = CURRENT.get();
+        if (count != null) {
+            count.limit = count.statements + budget;
+            count.budget = budget;
+            count.scope = scope;
+        }
+    }
+
+    public static void release() {
+        Count count = CURRENT.get();
+        if (count != null) {
+            count.limit = Integer.MAX_VALUE;
+        }
+    }
+
+    static void increment() {
+        Count count = CURRENT.get();
+        if (count != null && ++count.statements > count.limit) {
+            count.limit = Integer.MAX_VALUE;
+            throw new SqlBudgetExceededException(count.scope, count.budget);
+        }
+    }
+
+    private static final class Count {
+        private int statements;
+        private int limit = Integer.MAX_VALUE;
+        private int budget;
+        private String scope;
+    }
+}
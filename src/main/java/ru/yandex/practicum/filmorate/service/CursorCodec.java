@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Кодирует ключ последней записи страницы в непрозрачную строку курсора и обратно.
+ * Клиент не должен разбирать курсор: формат может поменяться вместе с сортировкой.
+ */
+public final class CursorCodec {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long... keys) {
+        String raw = Arrays.stream(keys).mapToObj(Long::toString).collect(Collectors.joining(":"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long[] keys = Arrays.stream(raw.split(":")).mapToLong(Long::parseLong).toArray();
+            if (keys.length != keyCount) {
+                throw new ValidationException("Некорректный курсор страницы: " + cursor);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+
+    /**
+     * Ключ курсора для столбца INTEGER (число лайков, полезность отзыва): курсор приходит от клиента,
+     * и значение вне диапазона int — такая же ошибка запроса, как испорченная строка.
+     */
+    public static int intKey(long key, String cursor) {
+        if (key < Integer.MIN_VALUE || key > Integer.MAX_VALUE) {
+            throw new ValidationException("Некорректный курсор страницы: " + cursor);
+        }
+        return (int) key;
+    }
+
+    public static void validateLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+    }
+}
@@ -1,20 +1,24 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.dao.interfaces.DirectorRepository;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.index.FilmSearchIndex;
 import ru.yandex.practicum.filmorate.model.Director;
 
 import java.util.Collection;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class DirectorService {
     private final ValidationService validationService;
     private final DirectorRepository directorRepository;
+    private final FilmSearchIndex filmSearchIndex;
 
     public Collection<Director> findAllDirectors() {
         log.info("Попытка получения всех режиссёров");
@@ -30,6 +34,7 @@ public class DirectorService {
     public Director createDirector(Director director) {
         log.info("Попытка создания режиссёра: {}", director.getName());
         Director createdDirector = directorRepository.createDirector(director);
+        filmSearchIndex.putDirector(createdDirector);
         log.info("Создан режиссёр с ID: {}", createdDirector.getId());
         return createdDirector;
     }
@@ -38,6 +43,7 @@ public class DirectorService {
         log.info("Попытка обновления режиссёра с ID: {}", newDirector.getId());
         validationService.validateDirectorExists(newDirector.getId());
         Director updatedDirector = directorRepository.updateDirector(newDirector);
+        filmSearchIndex.putDirector(updatedDirector);
         log.info("Режиссёр с ID {} обновлён", newDirector.getId());
         return updatedDirector;
     }
@@ -46,6 +52,7 @@ public class DirectorService {
         log.info("Попытка удаления режиссёра с ID: {}", id);
         validationService.validateDirectorExists(id);
         directorRepository.deleteDirector(id);
+        filmSearchIndex.removeDirector(id);
         log.info("Режиссёр с ID {} удалён", id);
     }
 }
@@ -1,30 +1,67 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.dao.EventBatchWriter;
+import ru.yandex.practicum.filmorate.dao.EventFeedBuffer;
 import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.FriendRepository;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Event;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class EventService {
 
     private final EventRepository eventRepository;
     private final ValidationService validationService;
+    private final EventBatchWriter eventBatchWriter;
+    private final EventFeedBuffer eventFeedBuffer;
+    private final FriendRepository friendRepository;
 
+    /**
+     * Ставит событие в очередь на запись; пользователь к этому моменту уже проверен вызывающим сервисом.
+     */
     public void addEvent(Long userId, Long entityId, Long typeId, Long operationId) {
         log.info("Попытка добавления записи в ленту событий пользователя: {}", userId);
-        validationService.validateUserExists(userId);
-        eventRepository.addEvent(userId, entityId, typeId, operationId);
+        eventBatchWriter.enqueue(new EventRepository.NewEvent(userId, entityId, typeId, operationId));
     }
 
     public Collection<Event> getEventList(Long userId) {
         log.info("Попытка получения ленты событий друзей пользователя: {}", userId);
         validationService.validateUserExists(userId);
-        return eventRepository.getEventListByUserId(userId);
+        eventBatchWriter.awaitWritten(userId);
+        return eventFeedBuffer.getFeed(userId);
+    }
+
+    /**
+     * Последние события друзей пользователя, от новых к старым. Очередь записи не ждём:
+     * события друзей появляются в ленте с задержкой до {@code filmorate.events.flush-interval}.
+     */
+    public List<Event> getFriendsTimeline(Long userId, int limit) {
+        log.info("Попытка получения {} последних событий друзей пользователя {}", limit, userId);
+        if (limit < 1 || limit > eventFeedBuffer.getCapacity()) {
+            throw new ValidationException("Размер ленты друзей должен быть от 1 до " + eventFeedBuffer.getCapacity());
+        }
+        validationService.validateUserExists(userId);
+        return eventFeedBuffer.getFriendsTimeline(friendRepository.getFriendIds(userId), limit);
+    }
+
+    public CursorPage<Event> getEventPage(Long userId, String after, int limit) {
+        log.info("Попытка получения страницы ленты событий пользователя {} после курсора {}", userId, after);
+        CursorCodec.validateLimit(limit);
+        validationService.validateUserExists(userId);
+        long afterId = after == null ? 0 : CursorCodec.decode(after, 1)[0];
+        eventBatchWriter.awaitWritten(userId);
+        return CursorPage.of(eventRepository.getEventListByUserIdAfter(userId, afterId, limit + 1), limit,
+                event -> CursorCodec.encode(event.getEventId()));
     }
 }
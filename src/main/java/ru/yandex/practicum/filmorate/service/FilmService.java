@@ -1,34 +1,58 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import ru.yandex.practicum.filmorate.dao.interfaces.DirectorRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.FilmRepository;
-import ru.yandex.practicum.filmorate.dao.interfaces.GenreRepository;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationCache;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class FilmService {
     private final ValidationService validationService;
     private final FilmRepository filmRepository;
-    private final DirectorRepository directorRepository;
-    private final GenreRepository genreRepository;
+    private final PopularityIndex popularityIndex;
+    private final FilmSearchIndex filmSearchIndex;
+    private final RecommendationEngine recommendationEngine;
+    private final RecommendationCache recommendationCache;
 
     public Collection<Film> findAllFilms() {
         log.info("Попытка получения всех фильмов");
         return filmRepository.findAllFilms();
     }
 
+    public void streamAllFilms(Consumer<Film> consumer) {
+        log.info("Попытка потоковой выдачи всех фильмов");
+        filmRepository.streamAllFilms(consumer);
+    }
+
+    public CursorPage<Film> findFilmsPage(String after, int limit) {
+        log.info("Попытка получения страницы фильмов после курсора {} размером {}", after, limit);
+        CursorCodec.validateLimit(limit);
+        long afterId = after == null ? 0 : CursorCodec.decode(after, 1)[0];
+        return CursorPage.of(filmRepository.findFilmsAfter(afterId, limit + 1), limit,
+                film -> CursorCodec.encode(film.getId()));
+    }
+
     public Film getFilmById(Long filmId) {
         log.info("Попытка получения фильма по ID: {}", filmId);
-        validationService.validateFilmExists(filmId);
+        // отдельная проверка существования не нужна: отсутствие фильма видно по пустому результату
         return filmRepository.getFilmById(filmId).orElseThrow(() -> new NotFoundException("Фильм с ID " + filmId + " не найден"));
     }
 
@@ -36,6 +60,8 @@ public class FilmService {
         log.info("Попытка создания фильма: {}", film.getName());
         validationService.validateFilm(film);
         Film createdFilm = filmRepository.createFilm(film);
+        popularityIndex.putFilm(createdFilm);
+        filmSearchIndex.putFilm(createdFilm);
         log.info("Создан фильм с ID: {}", createdFilm.getId());
         return createdFilm;
     }
@@ -45,8 +71,8 @@ public class FilmService {
         validationService.validateFilmExists(newFilm.getId());
         validationService.validateFilm(newFilm);
         Film updatedFilm = filmRepository.updateFilm(newFilm);
-        updatedFilm.setGenres(genreRepository.findGenreByFilmId(newFilm.getId()));
-        updatedFilm.setDirectors(directorRepository.findDirectorByFilmId(newFilm.getId()));
+        popularityIndex.putFilm(updatedFilm);
+        filmSearchIndex.putFilm(updatedFilm);
         log.info("Фильм с ID {} обновлен", newFilm.getId());
         return updatedFilm;
     }
@@ -55,6 +81,10 @@ public class FilmService {
         log.info("Попытка удаления фильма с ID: {}", id);
         validationService.validateFilmExists(id);
         filmRepository.deleteFilm(id);
+        popularityIndex.removeFilm(id);
+        filmSearchIndex.removeFilm(id);
+        recommendationEngine.removeFilm(id);
+        recommendationCache.filmRemoved(id);
         log.info("Фильм с ID {} удален", id);
     }
 
@@ -71,7 +101,27 @@ public class FilmService {
         if (genreId != null) {
             validationService.validateGenreExists(genreId);
         }
-        return filmRepository.getPopularFilms(count, genreId, year);
+        return filmRepository.findFilmsByIds(popularityIndex.getTopFilmIds(count, genreId, year));
+    }
+
+    public CursorPage<Film> getTopRatedMoviesPage(Long genreId, int year, String after, int limit) {
+        log.info("Попытка получения страницы популярных фильмов после курсора {} размером {}", after, limit);
+        CursorCodec.validateLimit(limit);
+        if (year <= 0) {
+            throw new ValidationException("Год фильма должен быть положительным числом.");
+        }
+        if (genreId != null) {
+            validationService.validateGenreExists(genreId);
+        }
+        List<Long> filmIds;
+        if (after == null) {
+            filmIds = popularityIndex.getTopFilmIds(limit + 1, genreId, year);
+        } else {
+            long[] keys = CursorCodec.decode(after, 2);
+            filmIds = popularityIndex.getTopFilmIdsAfter(limit + 1, genreId, year, CursorCodec.intKey(keys[0], after), keys[1]);
+        }
+        return CursorPage.of(filmRepository.findFilmsByIds(filmIds), limit,
+                film -> CursorCodec.encode(popularityIndex.getLikes(film.getId()), film.getId()));
     }
 
     public Collection<Film> getSortedFilmsByDirector(Long directorId, String sortBy) {
@@ -96,20 +146,30 @@ public class FilmService {
             log.info("Попытка получения списка всех фильмов отсортированных по популярности.");
             return filmRepository.getPopularFilms(findAllFilms().size(), null, 0);
         }
-        return switch (by) {
+        Set<Long> filmIds = switch (by) {
             case "title" -> {
                 log.info("Попытка получения списка фильмов отсортированных по названию.");
-                yield filmRepository.getResultSearchForFilmsByTitle(query);
+                yield searchFilmIds(query, true, false);
             }
             case "director" -> {
                 log.info("Попытка получения списка фильмов отсортированных по режиссерам.");
-                yield filmRepository.getResultSearchForFilmsByDirector(query);
+                yield searchFilmIds(query, false, true);
             }
             case "title,director", "director,title" -> {
                 log.info("Попытка получения списка фильмов отсортированных по режиссерам и названию.");
-                yield filmRepository.getResultSearchForFilmsByDirectorAndTitle(query);
+                yield searchFilmIds(query, true, true);
             }
             default -> throw new IllegalArgumentException("Неверный параметр поиска");
         };
+        // самые популярные выше, при равенстве лайков — более новые фильмы
+        List<Long> rankedIds = filmIds.stream()
+                .sorted(Comparator.comparingInt((Long filmId) -> popularityIndex.getLikes(filmId)).reversed()
+                        .thenComparing(Comparator.reverseOrder()))
+                .toList();
+        return filmRepository.findFilmsByIds(rankedIds);
+    }
+
+    private Set<Long> searchFilmIds(String query, boolean byTitle, boolean byDirector) {
+        return query == null ? Set.of() : filmSearchIndex.search(query, byTitle, byDirector);
     }
 }
\ No newline at end of file
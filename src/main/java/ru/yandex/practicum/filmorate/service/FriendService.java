@@ -1,9 +1,9 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.FriendRepository;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
@@ -12,11 +12,12 @@ import java.util.Collection;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class FriendService {
     private final FriendRepository friendRepository;
     private final ValidationService validationService;
-    private final EventRepository eventRepository;
+    private final EventService eventService;
 
     public void addFriend(Long userId, Long friendId) {
         log.info("Попытка добавления в друзья: пользователь {} добавляет {}", userId, friendId);
@@ -26,7 +27,7 @@ public class FriendService {
         }
         friendRepository.addFriend(userId, friendId);
         log.info("Пользователь {} отправил запрос на дружбу пользователю {}", userId, friendId);
-        eventRepository.addEvent(userId, friendId, 3L /* друг */, 2L /* добавление */);
+        eventService.addEvent(userId, friendId, 3L /* друг */, 2L /* добавление */);
     }
 
     public void removeFriend(Long userId, Long friendId) {
@@ -34,7 +35,7 @@ public class FriendService {
         validationService.validateUsersExist(userId, friendId);
         friendRepository.removeFriend(userId, friendId);
         log.info("Пользователь {} удалил пользователя {} из друзей", userId, friendId);
-        eventRepository.addEvent(userId, friendId, 3L /* друг */, 1L /* удаление */);
+        eventService.addEvent(userId, friendId, 3L /* друг */, 1L /* удаление */);
     }
 
     public Collection<User> getFriends(Long userId) {
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import java.util.Set;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class GenreService {
     private final GenreRepository genreRepository;
@@ -1,23 +1,35 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationCache;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class LikeService {
     private final LikeRepository likeRepository;
     private final ValidationService validationService;
     private final EventService eventService;
+    private final PopularityIndex popularityIndex;
+    private final RecommendationEngine recommendationEngine;
+    private final RecommendationCache recommendationCache;
 
     public void addLike(Long filmId, Long userId) {
         log.info("Попытка добавления лайка фильму {} от пользователя {}", filmId, userId);
         validationService.validateFilmExists(filmId);
         validationService.validateUserExists(userId);
-        likeRepository.addLike(filmId, userId);
+        if (likeRepository.addLike(filmId, userId)) {
+            popularityIndex.likeAdded(filmId);
+            recommendationEngine.likeAdded(userId, filmId);
+            recommendationCache.likeChanged(userId, filmId);
+        }
         log.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
         eventService.addEvent(userId, filmId, 1L /* лайк */, 2L /* добавление*/);
     }
@@ -25,7 +37,11 @@ public class LikeService {
     public void removeLike(Long filmId, Long userId) {
         log.info("Попытка удаления лайка у фильма {} от пользователя {}", filmId, userId);
         validationService.validateFilmAndUserIds(filmId, userId);
-        likeRepository.removeLike(filmId, userId);
+        if (likeRepository.removeLike(filmId, userId)) {
+            popularityIndex.likeRemoved(filmId);
+            recommendationEngine.likeRemoved(userId, filmId);
+            recommendationCache.likeChanged(userId, filmId);
+        }
         log.info("Пользователь {} убрал лайк у фильма {}", userId, filmId);
         eventService.addEvent(userId, filmId, 1L /* лайк */, 1L /* удаление */);
     }
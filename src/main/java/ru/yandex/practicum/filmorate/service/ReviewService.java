@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -7,14 +8,17 @@ import ru.yandex.practicum.filmorate.dao.interfaces.EstimationRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.ReviewRepository;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Estimation;
 import ru.yandex.practicum.filmorate.model.Review;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class ReviewService {
     private final ValidationService validationService;
@@ -33,8 +37,6 @@ public class ReviewService {
 
     public Review updateReview(Review review) {
         log.info("Попытка обновления отзыва");
-        System.out.println(review.getReviewId());
-        System.out.println(review);
         validationService.validateReview(review);
         validationService.validateReviewExists(review.getReviewId());
         Review newReview = reviewRepository.updateReview(review);
@@ -74,6 +76,19 @@ public class ReviewService {
         }
     }
 
+    public CursorPage<Review> getReviewsPage(Long filmId, String after, int limit) {
+        log.info("Попытка получения страницы отзывов по фильму {} после курсора {}", filmId, after);
+        CursorCodec.validateLimit(limit);
+        List<Review> reviews;
+        if (after == null) {
+            reviews = reviewRepository.getReviewsAfter(filmId, null, null, limit + 1);
+        } else {
+            long[] keys = CursorCodec.decode(after, 2);
+            reviews = reviewRepository.getReviewsAfter(filmId, CursorCodec.intKey(keys[0], after), keys[1], limit + 1);
+        }
+        return CursorPage.of(reviews, limit, review -> CursorCodec.encode(review.getUseful(), review.getReviewId()));
+    }
+
     public void addLikeReview(Long reviewId, Long userId) {
         log.info("Попытка добавления лайка: пользователь {} ставит лайк отзыву {}", userId, reviewId);
         validationService.validateReviewExists(reviewId);
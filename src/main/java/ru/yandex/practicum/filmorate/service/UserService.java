@@ -1,28 +1,60 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.dao.EventFeedBuffer;
+import ru.yandex.practicum.filmorate.dao.interfaces.FilmRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.UserRepository;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationCache;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine;
+import ru.yandex.practicum.filmorate.index.RecommendationMode;
+import ru.yandex.practicum.filmorate.model.CursorPage;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
     private final ValidationService validationService;
+    private final LikeRepository likeRepository;
+    private final PopularityIndex popularityIndex;
+    private final RecommendationEngine recommendationEngine;
+    private final RecommendationCache recommendationCache;
+    private final FilmRepository filmRepository;
+    private final EventFeedBuffer eventFeedBuffer;
 
     public Collection<User> findAllUsers() {
         log.info("Попытка получения списка всех пользователей.");
         return userRepository.findAllUsers();
     }
 
+    public void streamAllUsers(Consumer<User> consumer) {
+        log.info("Попытка потоковой выдачи всех пользователей.");
+        userRepository.streamAllUsers(consumer);
+    }
+
+    public CursorPage<User> findUsersPage(String after, int limit) {
+        log.info("Попытка получения страницы пользователей после курсора {} размером {}", after, limit);
+        CursorCodec.validateLimit(limit);
+        long afterId = after == null ? 0 : CursorCodec.decode(after, 1)[0];
+        return CursorPage.of(userRepository.findUsersAfter(afterId, limit + 1), limit,
+                user -> CursorCodec.encode(user.getId()));
+    }
+
     public User getUserById(Long userId) {
         log.info("Попытка получения пользователя по ID: {}", userId);
         if (userId == null) {
@@ -34,7 +66,13 @@ public class UserService {
     public Collection<Film> getUserRecommendations(Long userId) {
 
         validationService.validateUserExists(userId);
-        return userRepository.getUserRecommendations(userId);
+        return filmRepository.findFilmsByIds(recommendationCache.get(userId));
+    }
+
+    public Collection<Film> getUserRecommendations(Long userId, String mode) {
+        log.info("Попытка получения рекомендаций для пользователя {} в режиме {}", userId, mode);
+        validationService.validateUserExists(userId);
+        return filmRepository.findFilmsByIds(recommendationCache.get(userId, parseMode(mode)));
     }
 
     public User createUser(User user) {
@@ -64,7 +102,20 @@ public class UserService {
     public void deleteUser(Long id) {
         log.info("Попытка удаления пользователя с ID: {}", id);
         validationService.validateUserExists(id);
+        List<Long> likedFilmIds = likeRepository.findFilmIdsLikedByUser(id);
         userRepository.deleteUser(id);
+        likedFilmIds.forEach(popularityIndex::likeRemoved);
+        recommendationEngine.removeUser(id);
+        recommendationCache.userRemoved(id);
+        eventFeedBuffer.removeUser(id);
         log.info("Пользователь с ID {} удален", id);
     }
-}
\ No newline at end of file
+
+    private static RecommendationMode parseMode(String mode) {
+        try {
+            return RecommendationMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неизвестный режим рекомендаций: " + mode + ". Допустимы exact и approximate.");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.dao.interfaces.*;
@@ -9,6 +10,7 @@ import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Review;
 
 @Service
+@Timed("filmorate.service")
 @RequiredArgsConstructor
 public class ValidationService {
     private final UserRepository userRepository;
@@ -23,7 +25,9 @@ public class ValidationService {
         if (userId == null) {
             throw new ValidationException("ID пользователя не может быть null");
         }
-        userRepository.getUserById(userId).orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден"));
+        if (!userRepository.existsUserById(userId)) {
+            throw new NotFoundException("Пользователь с ID " + userId + " не найден");
+        }
     }
 
     public void validateUsersExist(Long userId1, Long userId2) {
@@ -47,7 +51,9 @@ public class ValidationService {
         if (filmId == null) {
             throw new ValidationException("ID фильма не может быть null");
         }
-        filmRepository.getFilmById(filmId).orElseThrow(() -> new NotFoundException("Фильм с ID " + filmId + " не найден"));
+        if (!filmRepository.existsFilmById(filmId)) {
+            throw new NotFoundException("Фильм с ID " + filmId + " не найден");
+        }
     }
 
     public void validateFilm(Film film) {
@@ -87,14 +93,18 @@ public class ValidationService {
         if (directorId == null) {
             throw new ValidationException("ID режиссёра не может быть null");
         }
-        directorRepository.getDirectorById(directorId).orElseThrow(() -> new NotFoundException("Режиссёр с ID " + directorId + " не найден"));
+        if (!directorRepository.existsDirectorById(directorId)) {
+            throw new NotFoundException("Режиссёр с ID " + directorId + " не найден");
+        }
     }
 
     public void validateReviewExists(Long reviewId) {
         if (reviewId == null) {
             throw new ValidationException("ID отзыва не могут быть null");
         }
-        reviewRepository.getReviewById(reviewId).orElseThrow(() -> new NotFoundException("Отзыв с review_id " + reviewId + " не найден"));
+        if (!reviewRepository.existsReviewById(reviewId)) {
+            throw new NotFoundException("Отзыв с review_id " + reviewId + " не найден");
+        }
     }
 
     public void validateReview(Review review) {
@@ -0,0 +1,28 @@
+-- изменения схемы после прежнего schema.sql; базы, созданные им, Flyway принимает на версии 2
+-- и доводит до текущей этой миграцией, поэтому каждое изменение допускает повторное применение
+
+-- число лайков, поддерживается JdbcLikeRepository
+ALTER TABLE films ADD COLUMN IF NOT EXISTS like_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE films f SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id);
+
+CREATE INDEX IF NOT EXISTS films_like_count_idx ON films (like_count DESC, film_id);
+
+-- фильмы режиссёра: director_id с film_id, чтобы не читать строки таблицы
+CREATE INDEX IF NOT EXISTS film_directors_director_idx ON film_directors (director_id, film_id);
+
+-- популярные фильмы жанра
+CREATE INDEX IF NOT EXISTS film_genre_genre_idx ON film_genre (genre_id, film_id);
+
+-- лайки пользователя: рекомендации, общие фильмы, удаление пользователя
+CREATE INDEX IF NOT EXISTS likes_user_film_idx ON likes (user_id, film_id);
+
+-- лента пользователя в порядке event_id: страницы и последние события читаются из индекса
+-- без сортировки всей истории пользователя; H2 не читает индекс в обратном порядке,
+-- поэтому для последних событий отдельный индекс по убыванию
+CREATE INDEX IF NOT EXISTS event_feed_user_event_idx ON event_feed (user_id, event_id);
+CREATE INDEX IF NOT EXISTS event_feed_user_last_idx ON event_feed (user_id, event_id DESC);
+
+-- все отзывы в порядке полезности и продолжение страницы после (useful, review_id);
+-- отзывы одного фильма H2 выбирает по индексу внешнего ключа film_id, составной индекс он не использует
+CREATE INDEX IF NOT EXISTS reviews_useful_idx ON reviews (useful DESC, review_id);
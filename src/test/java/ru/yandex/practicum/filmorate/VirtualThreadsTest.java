@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.config.ConnectionGateDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual")
+public class VirtualThreadsTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testTomcatRunsRequestsOnVirtualThreads() {
+        TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+        Object executor = server.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+        assertThat(executor.getClass().getSimpleName()).contains("Virtual");
+    }
+
+    @Test
+    public void testPoolIsBehindConnectionGate() throws SQLException {
+        assertThat(dataSource.isWrapperFor(ConnectionGateDataSource.class)).isTrue();
+    }
+
+    @Test
+    public void testConcurrentRequestsBeyondPoolSizeSucceed() {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<HttpStatus>> responses = IntStream.range(0, 100)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                            HttpStatus.valueOf(rest.getForEntity("/films/popular", String.class)
+                                    .getStatusCode().value()), clients))
+                    .toList();
+
+            assertThat(responses).allSatisfy(response -> assertThat(response.join()).isEqualTo(HttpStatus.OK));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class JdbcConfigTest {
+    // getReviewsAfter собирает условие отбора из двух необязательных частей
+    private static final int REVIEW_PAGE_VARIANTS = 4;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    public void testSqlCacheCoversAllRepositoryQueries() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Repository.class));
+        int queries = REVIEW_PAGE_VARIANTS;
+        for (BeanDefinition definition : scanner.findCandidateComponents("ru.yandex.practicum.filmorate.dao.jdbc")) {
+            for (Field field : Class.forName(definition.getBeanClassName()).getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                    queries++;
+                }
+            }
+        }
+
+        assertThat(queries).isGreaterThan(REVIEW_PAGE_VARIANTS);
+        assertThat(jdbc.getCacheLimit()).isEqualTo(NamedParameterJdbcTemplate.DEFAULT_CACHE_LIMIT);
+        assertThat(queries).isLessThanOrEqualTo(NamedParameterJdbcTemplate.DEFAULT_CACHE_LIMIT);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SampledSuccessStrategyTest {
+    private final Correlation correlation = mock(Correlation.class);
+    private final HttpRequest request = mock(HttpRequest.class);
+    private final HttpRequest requestWithoutBody = mock(HttpRequest.class);
+    private final Sink sink = mock(Sink.class);
+
+    @Test
+    public void testErrorsAreAlwaysLoggedWithBodies() throws IOException {
+        SampledSuccessStrategy strategy = new SampledSuccessStrategy(400, 0);
+        HttpResponse response = response(500);
+
+        for (int i = 0; i < 100; i++) {
+            strategy.write(correlation, request, response, sink);
+        }
+
+        verify(sink, times(100)).writeBoth(correlation, request, response);
+        verify(response, never()).withoutBody();
+    }
+
+    @Test
+    public void testSuccessesAreSampledWithoutBodies() throws IOException {
+        SampledSuccessStrategy strategy = new SampledSuccessStrategy(400, 0.1);
+        HttpResponse response = response(200);
+        HttpResponse responseWithoutBody = mock(HttpResponse.class);
+        when(request.withoutBody()).thenReturn(requestWithoutBody);
+        when(response.withoutBody()).thenReturn(responseWithoutBody);
+
+        for (int i = 0; i < 100_000; i++) {
+            strategy.write(correlation, request, response, sink);
+        }
+
+        verify(sink, never()).writeBoth(any(), any(HttpRequest.class), eq(response));
+        int logged = mockingDetails(sink).getInvocations().size();
+        assertThat(logged).isBetween(9_000, 11_000);
+        verify(sink, times(logged)).writeBoth(correlation, requestWithoutBody, responseWithoutBody);
+    }
+
+    @Test
+    public void testSampleRateBounds() {
+        SampledSuccessStrategy all = new SampledSuccessStrategy(400, 1);
+        SampledSuccessStrategy none = new SampledSuccessStrategy(400, 0);
+
+        assertThat(all.sampled()).isTrue();
+        assertThat(none.sampled()).isFalse();
+        assertThatThrownBy(() -> new SampledSuccessStrategy(400, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testStrategyIsChosenByLogbookProperty() {
+        ApplicationContextRunner runner = new ApplicationContextRunner().withUserConfiguration(LogbookConfig.class);
+
+        runner.withPropertyValues("logbook.strategy=sampled", "filmorate.logbook.sample-rate=0.01")
+                .run(context -> assertThat(context).getBean(Strategy.class).isInstanceOf(SampledSuccessStrategy.class));
+        runner.run(context -> assertThat(context).doesNotHaveBean(Strategy.class));
+    }
+
+    private static HttpResponse response(int status) {
+        HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
+    }
+}
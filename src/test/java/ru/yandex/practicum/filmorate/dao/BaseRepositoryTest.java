@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaseRepositoryTest {
+
+    @Test
+    public void testForEachPageVisitsEveryRowOnce() {
+        for (int rowCount : List.of(0, 1, BaseRepository.STREAM_PAGE_SIZE, 2 * BaseRepository.STREAM_PAGE_SIZE + 1)) {
+            List<Long> table = LongStream.rangeClosed(1, rowCount).boxed().toList();
+            List<Long> afterIds = new ArrayList<>();
+            List<Long> visited = new ArrayList<>();
+
+            BaseRepository.forEachPage((afterId, limit) -> {
+                afterIds.add(afterId);
+                return table.stream().filter(id -> id > afterId).limit(limit).toList();
+            }, Long::longValue, visited::add);
+
+            assertThat(visited).isEqualTo(table);
+            // полная страница не говорит, что строк больше нет, поэтому после неё идёт ещё один запрос
+            assertThat(afterIds).hasSize(rowCount / BaseRepository.STREAM_PAGE_SIZE + 1);
+        }
+    }
+}
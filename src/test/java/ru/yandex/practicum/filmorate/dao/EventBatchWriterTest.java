@@ -0,0 +1,209 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcEventRepository;
+import ru.yandex.practicum.filmorate.mappers.EventRowMapper;
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcEventRepository.class, EventRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // писатель работает в своём потоке и своих транзакциях
+public class EventBatchWriterTest {
+    private static final int PRODUCERS = 8;
+    private static final int EVENTS_PER_PRODUCER = 300;
+
+    @Autowired
+    private JdbcEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    public void testNoEventsLostUnderConcurrentLoadWithBlocking() throws InterruptedException {
+        assertNoEventsLost("block");
+    }
+
+    @Test
+    public void testNoEventsLostUnderConcurrentLoadWithCallerRuns() throws InterruptedException {
+        assertNoEventsLost("caller-runs");
+    }
+
+    @Test
+    public void testFullBatchIsWrittenWithoutWaitingForInterval() throws InterruptedException {
+        EventBatchWriter writer = writer(100, 3, Duration.ofHours(1), "block", true);
+        writer.start();
+        try {
+            for (long entityId = 1; entityId <= 3; entityId++) {
+                writer.enqueue(event(1L, entityId));
+            }
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (eventRepository.getEventListByUserId(1L).size() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(eventRepository.getEventListByUserId(1L)).extracting(Event::getEntityId)
+                    .containsExactly(1L, 2L, 3L);
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueueIsFlushedOnShutdown() throws InterruptedException {
+        EventBatchWriter writer = writer(100, 50, Duration.ofHours(1), "block", true);
+        writer.start();
+        for (long entityId = 1; entityId <= 5; entityId++) {
+            writer.enqueue(event(1L, entityId));
+        }
+
+        writer.shutdown();
+
+        assertThat(writer.queued()).isZero();
+        assertThat(eventRepository.getEventListByUserId(1L)).hasSize(5);
+    }
+
+    @Test
+    public void testQueueIsDroppedOnShutdownWhenFlushDisabled() throws InterruptedException {
+        EventBatchWriter writer = writer(100, 50, Duration.ofHours(1), "block", false);
+        writer.start();
+        for (long entityId = 1; entityId <= 5; entityId++) {
+            writer.enqueue(event(1L, entityId));
+        }
+
+        writer.shutdown();
+
+        assertThat(eventRepository.getEventListByUserId(1L)).isEmpty();
+    }
+
+    @Test
+    public void testBatchIsDroppedAfterMaxAttempts() {
+        EventRepository failing = mock(EventRepository.class);
+        when(failing.addEvents(anyList(), any())).thenThrow(new DataIntegrityViolationException("NULL not allowed"));
+        EventBatchWriter writer = new EventBatchWriter(failing, new EventFeedBuffer(failing, 10, 100), 100, 10,
+                Duration.ofHours(1), "block", true, 3);
+        writer.enqueue(event(1L, 1L));
+
+        for (int i = 0; i < 4; i++) {
+            writer.flush();
+        }
+
+        verify(failing, times(3)).addEvents(anyList(), any());
+        assertThat(writer.queued()).isZero();
+    }
+
+    @Test
+    public void testBatchIsNotRewrittenWhenBufferUpdateFails() {
+        EventFeedBuffer buffer = mock(EventFeedBuffer.class);
+        doThrow(new IllegalStateException("Справочник типов событий недоступен")).when(buffer)
+                .appendAll(any(), any(), any());
+        EventBatchWriter writer = new EventBatchWriter(eventRepository, buffer, 100, 10, Duration.ofHours(1),
+                "block", true, 3);
+        writer.enqueue(event(1L, 1L));
+
+        writer.flush();
+        writer.flush();
+
+        assertThat(eventRepository.getEventListByUserId(1L)).hasSize(1);
+        verify(buffer).removeUser(1L);
+    }
+
+    @Test
+    public void testReaderWaitsForOwnEventsWrittenByWriterThread() throws InterruptedException {
+        EventRepository repository = mock(EventRepository.class);
+        List<String> writingThreads = new ArrayList<>();
+        when(repository.addEvents(anyList(), any())).thenAnswer(invocation -> {
+            writingThreads.add(Thread.currentThread().getName());
+            return List.of(1L);
+        });
+        EventBatchWriter writer = new EventBatchWriter(repository, new EventFeedBuffer(repository, 10, 100), 100, 10,
+                Duration.ofHours(1), "block", true, 3);
+        writer.start();
+        try {
+            writer.awaitWritten(1L); // своих событий в очереди нет — ждать нечего
+            writer.enqueue(event(1L, 1L));
+
+            writer.awaitWritten(1L);
+
+            assertThat(writer.queued()).isZero();
+            assertThat(writingThreads).containsExactly("event-batch-writer");
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private void assertNoEventsLost(String backpressure) throws InterruptedException {
+        // очередь заметно меньше потока событий, чтобы производители упирались в ограничение
+        EventBatchWriter writer = writer(16, 10, Duration.ofMillis(5), backpressure, true);
+        writer.start();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (long userId = 1; userId <= PRODUCERS; userId++) {
+            long producerUserId = userId;
+            producers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long entityId = 1; entityId <= EVENTS_PER_PRODUCER; entityId++) {
+                    writer.enqueue(event(producerUserId, entityId));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.flush();
+        writer.shutdown();
+
+        List<Long> expected = LongStream.rangeClosed(1, EVENTS_PER_PRODUCER).boxed().toList();
+        for (long userId = 1; userId <= PRODUCERS; userId++) {
+            List<Event> feed = eventRepository.getEventListByUserIdAfter(userId, 0, EVENTS_PER_PRODUCER + 1);
+            assertThat(feed).extracting(Event::getEntityId).as("user %s", userId).isEqualTo(expected);
+        }
+        // события разных производителей: порядок времени совпадает с порядком ID
+        assertThat(jdbc.queryForList("SELECT created_at FROM event_feed ORDER BY event_id", Timestamp.class))
+                .isSorted();
+    }
+
+    private EventBatchWriter writer(int capacity, int batchSize, Duration flushInterval, String backpressure,
+                                    boolean flushOnShutdown) {
+        return new EventBatchWriter(eventRepository, new EventFeedBuffer(eventRepository, 10, 100), capacity, batchSize,
+                flushInterval, backpressure, flushOnShutdown, 5);
+    }
+
+    private static NewEvent event(Long userId, Long entityId) {
+        return new NewEvent(userId, entityId, 1L, 2L);
+    }
+}
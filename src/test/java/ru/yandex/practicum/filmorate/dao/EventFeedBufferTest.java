@@ -0,0 +1,161 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcEventRepository;
+import ru.yandex.practicum.filmorate.mappers.EventRowMapper;
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcEventRepository.class, EventRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EventFeedBufferTest {
+    private static final int CAPACITY = 3;
+
+    @Autowired
+    private JdbcEventRepository eventRepository;
+
+    private EventFeedBuffer eventFeedBuffer;
+    private EventBatchWriter eventBatchWriter;
+
+    @BeforeEach
+    public void setUp() {
+        eventFeedBuffer = new EventFeedBuffer(eventRepository, CAPACITY, 100);
+        // фоновый поток не запускается: пакеты пишутся явным flush()
+        eventBatchWriter = new EventBatchWriter(eventRepository, eventFeedBuffer, 100, 100, Duration.ofHours(1),
+                "block", true, 5);
+    }
+
+    @Test
+    public void testShortHistoryIsServedFromBuffer() {
+        write(1L, 1L, 2L);
+        assertThat(eventFeedBuffer.getFeed(1L)).extracting(Event::getEntityId).containsExactly(1L, 2L);
+
+        write(1L, 3L);
+
+        assertThat(eventFeedBuffer.getFeed(1L)).isEqualTo(eventRepository.getEventListByUserIdAfter(1L, 0, 100))
+                .isEqualTo(eventRepository.getEventListByUserId(1L));
+    }
+
+    @Test
+    public void testLongHistorySpillsToTable() {
+        write(1L, 1L, 2L, 3L, 4L, 5L);
+        assertThat(eventFeedBuffer.getFeed(1L)).extracting(Event::getEntityId).containsExactly(1L, 2L, 3L, 4L, 5L);
+
+        write(1L, 6L, 7L);
+
+        assertThat(eventFeedBuffer.getFeed(1L)).extracting(Event::getEntityId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    public void testBufferOverflowAfterLoadSpillsToTable() {
+        write(1L, 1L);
+        eventFeedBuffer.getFeed(1L);
+
+        write(1L, 2L, 3L, 4L, 5L);
+
+        assertThat(eventFeedBuffer.getFeed(1L)).extracting(Event::getEntityId).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void testAlreadyLoadedEventIsNotDuplicated() {
+        write(1L, 1L);
+        List<Event> loaded = eventFeedBuffer.getFeed(1L);
+
+        NewEvent duplicate = new NewEvent(1L, 1L, 1L, 2L);
+        eventFeedBuffer.appendAll(List.of(duplicate), List.of(loaded.getFirst().getEventId()), LocalDateTime.now());
+
+        assertThat(eventFeedBuffer.getFeed(1L)).hasSize(1);
+    }
+
+    @Test
+    public void testFriendsTimelineMergesNewestFirst() {
+        write(2L, 21L);
+        write(3L, 31L);
+        write(2L, 22L);
+        write(3L, 32L, 33L);
+        write(1L, 11L);
+
+        List<Event> timeline = eventFeedBuffer.getFriendsTimeline(List.of(2L, 3L), CAPACITY);
+
+        assertThat(timeline).extracting(Event::getEntityId).containsExactly(33L, 32L, 22L);
+        assertThat(eventFeedBuffer.getFriendsTimeline(List.of(), CAPACITY)).isEmpty();
+    }
+
+    @Test
+    public void testColdFriendBuffersAreLoadedWithOneQuery() {
+        write(2L, 21L, 22L);
+        write(3L, 31L);
+        EventRepository repository = mock(EventRepository.class, delegatesTo(eventRepository));
+        EventFeedBuffer buffer = new EventFeedBuffer(repository, CAPACITY, 100);
+
+        List<Event> timeline = buffer.getFriendsTimeline(List.of(2L, 3L, 4L), CAPACITY);
+
+        assertThat(timeline).extracting(Event::getEntityId).containsExactly(31L, 22L, 21L);
+        verify(repository).getLastEventsByUserIds(List.of(2L, 3L, 4L), CAPACITY + 1);
+        verify(repository, never()).getLastEventsByUserId(any(), anyInt());
+    }
+
+    @Test
+    public void testEventWrittenWhileLoadingIsKept() {
+        write(1L, 1L);
+        EventRepository repository = mock(EventRepository.class, delegatesTo(eventRepository));
+        EventFeedBuffer buffer = new EventFeedBuffer(repository, CAPACITY, 100);
+        EventBatchWriter writer = new EventBatchWriter(eventRepository, buffer, 100, 100, Duration.ofHours(1),
+                "block", true, 5);
+        // событие записывается после того, как загрузка прочитала базу, но до публикации загруженного
+        doAnswer(invocation -> {
+            List<Event> last = eventRepository.getLastEventsByUserId(1L, CAPACITY + 1);
+            writer.enqueue(new NewEvent(1L, 2L, 1L, 2L));
+            writer.flush();
+            return last;
+        }).when(repository).getLastEventsByUserId(1L, CAPACITY + 1);
+
+        assertThat(buffer.getFeed(1L)).extracting(Event::getEntityId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testBuffersAreBoundedByUserCount() {
+        EventFeedBuffer buffer = new EventFeedBuffer(eventRepository, CAPACITY, 2);
+        eventBatchWriter = new EventBatchWriter(eventRepository, buffer, 100, 100, Duration.ofHours(1),
+                "block", true, 5);
+        for (long userId = 1; userId <= 3; userId++) {
+            write(userId, 10 * userId);
+            buffer.getFeed(userId);
+        }
+
+        assertThat(buffer.bufferedUsers()).isLessThanOrEqualTo(2);
+        for (long userId = 1; userId <= 3; userId++) {
+            assertThat(buffer.getFeed(userId)).extracting(Event::getEntityId).containsExactly(10 * userId);
+        }
+    }
+
+    private void write(Long userId, Long... entityIds) {
+        for (Long entityId : entityIds) {
+            eventBatchWriter.enqueue(new NewEvent(userId, entityId, 1L, 2L));
+        }
+        eventBatchWriter.flush();
+    }
+}
@@ -117,4 +117,10 @@ public class JdbcDirectorRepositoryIntegrationTest {
 
         assertThat(isDeleted).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExistsDirectorById() {
+        assertThat(directorRepository.existsDirectorById(1L)).isTrue();
+        assertThat(directorRepository.existsDirectorById(999L)).isFalse();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.dao.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.mappers.EventRowMapper;
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcEventRepository.class, EventRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JdbcEventRepositoryIntegrationTest {
+
+    @Autowired
+    private JdbcEventRepository eventRepository;
+
+    @Test
+    public void testEventPagesMatchFullFeed() {
+        for (long filmId = 1; filmId <= 5; filmId++) {
+            addEvent(1L, filmId, 1L, 2L);
+        }
+        addEvent(2L, 1L, 1L, 2L);
+
+        List<Event> firstPage = eventRepository.getEventListByUserIdAfter(1L, 0, 3);
+        List<Event> secondPage = eventRepository.getEventListByUserIdAfter(1L, firstPage.get(2).getEventId(), 3);
+
+        assertThat(firstPage).extracting(Event::getEntityId).containsExactly(1L, 2L, 3L);
+        assertThat(secondPage).extracting(Event::getEntityId).containsExactly(4L, 5L);
+        assertThat(eventRepository.getEventListByUserId(1L)).hasSize(5);
+    }
+
+    @Test
+    public void testLastEventsOfSeveralUsers() {
+        for (long filmId = 1; filmId <= 5; filmId++) {
+            addEvent(1L, filmId, 1L, 2L);
+        }
+        addEvent(2L, 1L, 1L, 2L);
+
+        Map<Long, List<Event>> last = eventRepository.getLastEventsByUserIds(List.of(1L, 2L, 3L), 3);
+
+        assertThat(last).containsOnlyKeys(1L, 2L);
+        assertThat(last.get(1L)).isEqualTo(eventRepository.getLastEventsByUserId(1L, 3));
+        assertThat(last.get(2L)).extracting(Event::getEntityId).containsExactly(1L);
+    }
+
+    private void addEvent(Long userId, Long entityId, Long typeId, Long operationId) {
+        eventRepository.addEvents(List.of(new NewEvent(userId, entityId, typeId, operationId)), LocalDateTime.now());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.yandex.practicum.filmorate.mappers.DirectorRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
 import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
 import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
 import ru.yandex.practicum.filmorate.mappers.MpaRatingRowMapper;
@@ -25,7 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @JdbcTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
-@Import({JdbcFilmRepository.class, FilmRowMapper.class, JdbcGenreRepository.class, GenreRowMapper.class, JdbcMpaRepository.class, MpaRatingRowMapper.class, DirectorRowMapper.class, JdbcDirectorRepository.class})
+@Import({JdbcFilmRepository.class, FilmRowMapper.class, JdbcGenreRepository.class, GenreRowMapper.class, JdbcMpaRepository.class, MpaRatingRowMapper.class, DirectorRowMapper.class, JdbcDirectorRepository.class, FilmExtractor.class})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class JdbcFilmRepositoryIntegrationTest {
 
@@ -65,6 +66,16 @@ public class JdbcFilmRepositoryIntegrationTest {
         assertThat(foundFilm.get().getMpa().getId()).isEqualTo(1L);
     }
 
+    @Test
+    public void testFindFilmByIdLoadsGenresAndDirectors() {
+        Optional<Film> foundFilm = filmRepository.getFilmById(1L);
+
+        assertThat(foundFilm).isPresent();
+        assertThat(foundFilm.get().getMpa().getName()).isEqualTo("G");
+        assertThat(foundFilm.get().getGenres()).extracting(Genre::getName).containsExactly("Комедия", "Драма");
+        assertThat(foundFilm.get().getDirectors()).extracting(Director::getName).containsExactly("Квентин Тарантино");
+    }
+
     @Test
     public void testFindAllFilms() {
         List<Film> films = filmRepository.findAllFilms();
@@ -73,6 +84,16 @@ public class JdbcFilmRepositoryIntegrationTest {
         assertThat(films).extracting(Film::getName).containsExactlyInAnyOrder("Test Film 1", "Test Film 2");
     }
 
+    @Test
+    public void testFindAllFilmsLoadsGenresAndDirectors() {
+        List<Film> films = filmRepository.findAllFilms();
+
+        assertThat(films.get(0).getGenres()).extracting(Genre::getId).containsExactly(1L, 2L);
+        assertThat(films.get(0).getDirectors()).extracting(Director::getId).containsExactly(1L);
+        assertThat(films.get(1).getGenres()).isEmpty();
+        assertThat(films.get(1).getDirectors()).extracting(Director::getId).containsExactly(2L);
+    }
+
     @Test
     public void testUpdateFilm() {
         Film film = Film.builder().name("Original Film").description("Original Description").releaseDate(LocalDate.of(2020, 1, 1)).duration(120).mpa(MpaRating.builder().id(1L).name("G").build()).genres(new HashSet<>()).directors(new HashSet<>()).build();
@@ -290,4 +311,34 @@ public class JdbcFilmRepositoryIntegrationTest {
         filmRepository.deleteFilm(createdFilm1.getId());
         filmRepository.deleteFilm(createdFilm2.getId());
     }
+
+    @Test
+    public void testExistsFilmById() {
+        assertTrue(filmRepository.existsFilmById(1L));
+        assertFalse(filmRepository.existsFilmById(999L));
+    }
+
+    @Test
+    public void testFindFilmsByIdsKeepsRequestedOrder() {
+        List<Film> films = filmRepository.findFilmsByIds(List.of(2L, 999L, 1L));
+
+        assertThat(films).extracting(Film::getId).containsExactly(2L, 1L);
+        assertThat(films.get(1).getGenres()).extracting(Genre::getName).containsExactly("Комедия", "Драма");
+        assertThat(filmRepository.findFilmsByIds(List.of())).isEmpty();
+    }
+
+    @Test
+    public void testGetLikeCounts() {
+        assertThat(filmRepository.getLikeCounts()).containsEntry(1L, 2).containsEntry(2L, 1);
+    }
+
+    @Test
+    public void testFindFilmsAfter() {
+        List<Film> firstPage = filmRepository.findFilmsAfter(0, 1);
+
+        assertThat(firstPage).extracting(Film::getId).containsExactly(1L);
+        assertThat(firstPage.get(0).getGenres()).hasSize(2);
+        assertThat(filmRepository.findFilmsAfter(1, 5)).extracting(Film::getId).containsExactly(2L);
+        assertThat(filmRepository.findFilmsAfter(2, 5)).isEmpty();
+    }
 }
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
 import ru.yandex.practicum.filmorate.model.Genre;
@@ -23,6 +24,8 @@ public class JdbcGenreRepositoryIntegrationTest {
 
     @Autowired
     private JdbcGenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     public void testFindGenreById() {
@@ -48,4 +51,15 @@ public class JdbcGenreRepositoryIntegrationTest {
 
         assertThat(filmGenres).isNotEmpty(); // Проверяем, что множество жанров не пустое
     }
+
+    @Test
+    public void testGenreCacheIsRefreshedExplicitly() {
+        jdbcTemplate.update("INSERT INTO genres (genre_id, name) VALUES (7, 'Вестерн')");
+
+        assertThat(genreRepository.findGenreById(7L)).isEmpty(); // Справочник читается из кеша, а не из БД
+
+        genreRepository.refreshCache();
+
+        assertThat(genreRepository.findGenreById(7L)).hasValueSatisfying(genre -> assertThat(genre.getName()).isEqualTo("Вестерн"));
+    }
 }
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.dao.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.UserRowMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcLikeRepository.class, JdbcUserRepository.class, UserRowMapper.class, FilmExtractor.class, FilmRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JdbcLikeRepositoryIntegrationTest {
+
+    @Autowired
+    private JdbcLikeRepository likeRepository;
+
+    @Autowired
+    private JdbcUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testAddLikeIncrementsCounterOnce() {
+        assertTrue(likeRepository.addLike(2L, 1L));
+        assertFalse(likeRepository.addLike(2L, 1L));
+
+        assertThat(likeCount(2L)).isEqualTo(2); // фильм 2 уже лайкнул пользователь 2
+        assertThat(likeRepository.findFilmIdsLikedByUser(1L)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testRemoveLikeDecrementsCounterOnce() {
+        assertTrue(likeRepository.removeLike(1L, 1L));
+        assertFalse(likeRepository.removeLike(1L, 1L));
+
+        assertThat(likeCount(1L)).isEqualTo(1);
+        assertThat(likeRepository.findFilmIdsLikedByUser(1L)).isEmpty();
+    }
+
+    @Test
+    public void testDeleteUserDecrementsCountersOfLikedFilms() {
+        likeRepository.addLike(2L, 2L);
+
+        userRepository.deleteUser(2L);
+
+        assertThat(likeCount(1L)).isEqualTo(1);
+        assertThat(likeCount(2L)).isZero();
+    }
+
+    @Test
+    public void testCounterMatchesLikesTable() {
+        likeRepository.addLike(2L, 3L);
+        likeRepository.removeLike(1L, 2L);
+        likeRepository.addLike(1L, 3L);
+
+        Integer mismatches = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM films f
+                WHERE f.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id)
+                """, Integer.class);
+        assertThat(mismatches).isZero();
+    }
+
+    private int likeCount(Long filmId) {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM films WHERE film_id = ?", Integer.class, filmId);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.dao.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.mappers.ReviewRowMapper;
+import ru.yandex.practicum.filmorate.model.Review;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcReviewRepository.class, ReviewRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JdbcReviewRepositoryIntegrationTest {
+
+    @Autowired
+    private JdbcReviewRepository reviewRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // полезность отзывов: 1 -> 1, 2 -> 0, 3 -> 1, 4 -> 0, 5 -> 2
+        int[] useful = {1, 0, 1, 0, 2};
+        for (int i = 0; i < useful.length; i++) {
+            Review review = reviewRepository.addReview(Review.builder().content("Review " + i).isPositive(true)
+                    .userId(1L).filmId(i % 2 == 0 ? 1L : 2L).build());
+            for (int j = 0; j < useful[i]; j++) {
+                reviewRepository.addLikeReview(review.getReviewId(), 2L);
+            }
+        }
+    }
+
+    @Test
+    public void testPagesFollowUsefulOrder() {
+        assertThat(readAllPages(null, 2)).extracting(Review::getReviewId).containsExactly(5L, 1L, 3L, 2L, 4L);
+        assertThat(readAllPages(1L, 1)).extracting(Review::getReviewId).containsExactly(5L, 1L, 3L);
+    }
+
+    private List<Review> readAllPages(Long filmId, int limit) {
+        List<Review> all = new ArrayList<>();
+        List<Review> page = reviewRepository.getReviewsAfter(filmId, null, null, limit);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            Review last = page.get(page.size() - 1);
+            page = reviewRepository.getReviewsAfter(filmId, last.getUseful(), last.getReviewId(), limit);
+        }
+        return all;
+    }
+}
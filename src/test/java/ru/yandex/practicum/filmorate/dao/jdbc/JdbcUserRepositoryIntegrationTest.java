@@ -6,7 +6,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
-import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
 import ru.yandex.practicum.filmorate.mappers.UserRowMapper;
 import ru.yandex.practicum.filmorate.model.User;
 
@@ -18,7 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @JdbcTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
-@Import({JdbcUserRepository.class, UserRowMapper.class, JdbcGenreRepository.class, GenreRowMapper.class})
+@Import({JdbcUserRepository.class, UserRowMapper.class, FilmExtractor.class, FilmRowMapper.class})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class JdbcUserRepositoryIntegrationTest {
 
@@ -92,4 +93,17 @@ public class JdbcUserRepositoryIntegrationTest {
     public void testGetRecommendationsNonExistentUser() {
         assertThat(userRepository.getUserRecommendations(999L)).isEmpty();
     }
+
+    @Test
+    public void testExistsUserById() {
+        assertThat(userRepository.existsUserById(1L)).isTrue();
+        assertThat(userRepository.existsUserById(999L)).isFalse();
+    }
+
+    @Test
+    public void testFindUsersAfter() {
+        assertThat(userRepository.findUsersAfter(0, 2)).extracting(User::getId).containsExactly(1L, 2L);
+        assertThat(userRepository.findUsersAfter(2, 2)).extracting(User::getId).containsExactly(3L);
+        assertThat(userRepository.findUsersAfter(3, 2)).isEmpty();
+    }
 }
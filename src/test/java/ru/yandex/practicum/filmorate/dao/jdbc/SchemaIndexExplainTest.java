@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.dao.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет по EXPLAIN, что горячие запросы репозиториев идут по индексам из миграций схемы,
+ * а не сканируют таблицы лайков, ленты, отзывов, связей фильмов и друзей целиком.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SchemaIndexExplainTest {
+    private static final List<String> HOT_TABLES = List.of("LIKES", "EVENT_FEED", "REVIEWS", "FILM_GENRE",
+            "FILM_DIRECTORS", "FRIENDS");
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    public void testLikesOfUserUseUserIndex() {
+        assertIndexed(JdbcLikeRepository.FIND_FILM_IDS_LIKED_BY_USER_QUERY, Map.of("userId", 1L),
+                "LIKES_USER_FILM_IDX");
+        assertIndexed(JdbcUserRepository.DECREMENT_LIKE_COUNTS_OF_USER_QUERY, Map.of("userId", 1L),
+                "LIKES_USER_FILM_IDX");
+        assertIndexed(JdbcUserRepository.FIND_USER_RECOMMENDATIONS_QUERY, Map.of("user_id", 1L),
+                "LIKES_USER_FILM_IDX");
+        assertIndexed(JdbcFilmRepository.GET_COMMON_FILMS_WITH_FRIEND, Map.of("userId", 1L, "friendId", 2L),
+                "LIKES_USER_FILM_IDX");
+    }
+
+    @Test
+    public void testFilmsOfDirectorUseDirectorIndex() {
+        assertIndexed(JdbcFilmRepository.GET_DIRECTOR_FILMS_BY_LIKES, Map.of("directorId", 1L),
+                "FILM_DIRECTORS_DIRECTOR_IDX");
+        assertIndexed(JdbcFilmRepository.GET_DIRECTOR_FILMS_BY_YEAR, Map.of("directorId", 1L),
+                "FILM_DIRECTORS_DIRECTOR_IDX");
+    }
+
+    @Test
+    public void testPopularFilmsOfGenreUseGenreIndex() {
+        assertIndexed(JdbcFilmRepository.POPULAR_FILM_GENRE_IDS_QUERY,
+                Map.of("genreId", 1L, "year", 2999, "count", 10), "FILM_GENRE_GENRE_IDX");
+    }
+
+    @Test
+    public void testFeedQueriesUseUserIndex() {
+        assertIndexed(JdbcEventRepository.FIND_EVENT_LIST_BY_USER_ID_QUERY, Map.of("userId", 1L),
+                "EVENT_FEED_USER_EVENT_IDX");
+        assertIndexed(JdbcEventRepository.FIND_EVENTS_BEFORE_QUERY, Map.of("userId", 1L, "beforeId", 100L),
+                "EVENT_FEED_USER_EVENT_IDX");
+        assertIndexed(JdbcEventRepository.FIND_LAST_EVENTS_OF_USERS_QUERY,
+                Map.of("userIds", new SqlParameterValue(Types.ARRAY, new Long[]{1L, 2L}), "limit", 10));
+    }
+
+    @Test
+    public void testLimitedFeedQueriesReadIndexInOrder() {
+        assertIndexSorted(JdbcEventRepository.FIND_EVENT_PAGE_BY_USER_ID_QUERY,
+                Map.of("userId", 1L, "afterId", 0L, "limit", 10), "EVENT_FEED_USER_EVENT_IDX");
+        assertIndexSorted(JdbcEventRepository.FIND_LAST_EVENTS_QUERY, Map.of("userId", 1L, "limit", 10),
+                "EVENT_FEED_USER_LAST_IDX");
+    }
+
+    @Test
+    public void testStreamPagesReadPrimaryKeyInOrder() {
+        // внешняя сортировка по sort_rank упорядочивает только строки одной страницы
+        assertIndexSorted(JdbcFilmRepository.FIND_FILMS_PAGE_QUERY, Map.of("afterId", 0L, "limit", 500));
+        assertIndexSorted(JdbcUserRepository.FIND_USERS_PAGE_QUERY, Map.of("afterId", 0L, "limit", 500));
+    }
+
+    @Test
+    public void testReviewQueriesUseIndexes() {
+        assertIndexed(JdbcReviewRepository.GET_POPULAR_REVIEWS_BY_FILM_ID_QUERY, Map.of("filmId", 1L, "count", 10));
+        assertIndexed(JdbcReviewRepository.GET_REVIEWS_PAGE_QUERY.formatted("film_id = :filmId"),
+                Map.of("filmId", 1L, "limit", 10));
+        assertIndexed(JdbcReviewRepository.GET_ALL_REVIEWS_QUERY, Map.of("count", 10), "REVIEWS_USEFUL_IDX");
+        assertIndexed(JdbcReviewRepository.GET_REVIEWS_PAGE_QUERY.formatted("true"), Map.of("limit", 10),
+                "REVIEWS_USEFUL_IDX");
+        assertIndexed(JdbcReviewRepository.GET_REVIEWS_PAGE_QUERY
+                        .formatted("(useful < :afterUseful or (useful = :afterUseful and review_id > :afterReviewId))"),
+                Map.of("afterUseful", 3, "afterReviewId", 5L, "limit", 10), "REVIEWS_USEFUL_IDX");
+    }
+
+    @Test
+    public void testFriendQueriesDoNotScanFriends() {
+        assertIndexed(JdbcFriendRepository.GET_FRIEND_IDS_QUERY, Map.of("userId", 1L));
+        assertIndexed(JdbcFriendRepository.GET_COMMON_FRIENDS_QUERY, Map.of("userId1", 1L, "userId2", 2L));
+    }
+
+    // LIMIT без сортировки: строки идут из индекса в нужном порядке, и чтение останавливается на limit
+    private void assertIndexSorted(String query, Map<String, ?> params, String... indexes) {
+        String plan = assertIndexed(query, params, indexes);
+        assertThat(plan).as(plan).contains("/* index sorted */");
+    }
+
+    private String assertIndexed(String query, Map<String, ?> params, String... expectedIndexes) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + query, new HashMap<>(params), String.class));
+        for (String table : HOT_TABLES) {
+            assertThat(plan).as(plan).doesNotContain("PUBLIC." + table + ".tableScan");
+        }
+        for (String index : expectedIndexes) {
+            assertThat(plan).as(plan).contains("PUBLIC." + index);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.dao.jdbc;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SchemaMigrationTest {
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:migration-" + UUID.randomUUID(), "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    public void testRestartAppliesNothingAndKeepsData() {
+        assertThat(flyway("classpath:db/migration").migrate().migrationsExecuted).isEqualTo(3);
+        jdbc.update("INSERT INTO users (email, login, name, birthday) VALUES ('a@b.ru', 'a', 'A', '1990-01-01')");
+
+        assertThat(flyway("classpath:db/migration").migrate().migrationsExecuted).isZero();
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM genres", Integer.class)).isEqualTo(6);
+    }
+
+    @Test
+    public void testChangedAppliedMigrationFailsValidation() {
+        flyway("classpath:db/migration").migrate();
+        jdbc.update("UPDATE \"flyway_schema_history\" SET \"checksum\" = \"checksum\" + 1 WHERE \"version\" = '1'");
+
+        assertThatThrownBy(() -> flyway("classpath:db/migration").migrate())
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("checksum mismatch");
+    }
+
+    @Test
+    public void testDatabaseFromOldSchemaIsUpgradedAfterBaseline() throws SQLException {
+        ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("db/legacy/schema.sql"));
+        jdbc.update("INSERT INTO mpa_ratings (mpa_id, name) VALUES (1, 'G')");
+        jdbc.update("INSERT INTO users (email, login, name, birthday) VALUES ('a@b.ru', 'a', 'A', '1990-01-01')");
+        jdbc.update("INSERT INTO films (name, mpa_id) VALUES ('Film', 1)");
+        jdbc.update("INSERT INTO likes (film_id, user_id) VALUES (1, 1)");
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+                .baselineOnMigrate(true).baselineVersion("2").load();
+
+        assertThat(flyway.migrate().migrationsExecuted).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT like_count FROM films WHERE film_id = 1", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'FILMS_LIKE_COUNT_IDX'""",
+                Integer.class)).isEqualTo(1);
+    }
+
+    private Flyway flyway(String... locations) {
+        return Flyway.configure().dataSource(dataSource).locations(locations).load();
+    }
+}
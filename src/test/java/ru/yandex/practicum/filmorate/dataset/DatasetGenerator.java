@@ -0,0 +1,414 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный генератор синтетических данных для бенчмарков и нагрузочных тестов.
+ * Заполняет пустую схему из миграций пакетными вставками JDBC; одно и то же зерно даёт те же строки.
+ * Популярность фильмов и активность пользователей распределены по Ципфу: немногие фильмы собирают
+ * большую часть лайков, немногие пользователи ставят большую часть лайков, пишут отзывы и собирают друзей.
+ * ID назначаются явно, после вставки счётчики identity сдвигаются за последний ID.
+ */
+@Slf4j
+public class DatasetGenerator {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int GENRE_COUNT = 6;
+    private static final int MPA_COUNT = 5;
+    private static final double FILM_EXPONENT = 1.0;
+    private static final double USER_EXPONENT = 0.8;
+    private static final LocalDateTime FIRST_EVENT = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final String[] TITLE_WORDS = {"Тёмный", "рыцарь", "Космос", "Последний", "герой", "Город",
+            "Ночь", "Побег", "Star", "Night", "Return", "Legend", "Dream", "River", "Война", "Любовь"};
+    private static final String[] SURNAMES = {"Нолан", "Тарантино", "Спилберг", "Кэмерон", "Скорсезе",
+            "Тарковский", "Kubrick", "Fincher", "Villeneuve", "Miyazaki"};
+
+    private final JdbcTemplate jdbc;
+    private final long seed;
+
+    /**
+     * Масштаб набора данных. {@code likes} и {@code events} — точное число строк,
+     * {@code friendsPerUser} и {@code estimationsPerReview} — средние значения.
+     */
+    public record Scale(int users, int films, int directors, long likes, int friendsPerUser, int reviews,
+                        int estimationsPerReview, long events) {
+
+        /**
+         * Пропорции по числу лайков: 50 лайков на пользователя, фильмов в 2,5 раза больше,
+         * чем пользователей, 20 друзей у пользователя, отзыв на каждые 10 лайков.
+         */
+        public static Scale ofLikes(long likes) {
+            int users = (int) Math.max(100, likes / 50);
+            int films = users * 5 / 2;
+            return new Scale(users, films, Math.max(10, films / 100), likes, 20, (int) Math.max(10, likes / 10), 5,
+                    likes);
+        }
+    }
+
+    /**
+     * Итог генерации: сколько строк реально вставлено в каждую таблицу.
+     */
+    public record Dataset(Scale scale, long seed, long friendships, long estimations) {
+
+        public int users() {
+            return scale.users();
+        }
+
+        public int films() {
+            return scale.films();
+        }
+    }
+
+    public DatasetGenerator(DataSource dataSource, long seed) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.seed = seed;
+    }
+
+    /**
+     * Слова из названий фильмов и имён режиссёров: поисковые запросы, которые находят часть каталога.
+     */
+    public static List<String> searchTerms() {
+        List<String> terms = new ArrayList<>(List.of(TITLE_WORDS));
+        terms.addAll(List.of(SURNAMES));
+        return terms;
+    }
+
+    public Dataset generate(Scale scale) {
+        if (scale.likes() > (long) scale.users() * scale.films() / 4) {
+            throw new IllegalArgumentException("Лайков больше четверти матрицы пользователей и фильмов: " + scale);
+        }
+        long started = System.nanoTime();
+        // у каждой таблицы свой поток случайных чисел, чтобы изменение одной не сдвигало остальные
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom userRandom = root.split();
+        SplittableRandom filmRandom = root.split();
+        SplittableRandom likeRandom = root.split();
+        SplittableRandom friendRandom = root.split();
+        SplittableRandom reviewRandom = root.split();
+        SplittableRandom eventRandom = root.split();
+
+        Zipf popularFilms = new Zipf(scale.films(), FILM_EXPONENT, permutation(scale.films(), filmRandom));
+        Zipf activeUsers = new Zipf(scale.users(), USER_EXPONENT, permutation(scale.users(), userRandom));
+        long[] likes = likes(scale, popularFilms, activeUsers, likeRandom);
+        int[] likeCounts = new int[scale.films() + 1];
+        for (long like : likes) {
+            likeCounts[filmOf(like, scale.users())]++;
+        }
+
+        // данные согласованы по построению, поэтому проверки внешних ключей на время загрузки отключаются
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        long friendships;
+        long estimations;
+        try {
+            insertUsers(scale, userRandom);
+            insertDirectors(scale);
+            insertFilms(scale, likeCounts, filmRandom);
+            batch("INSERT INTO likes (film_id, user_id) VALUES (?, ?)", likes.length, (ps, i) -> {
+                ps.setLong(1, filmOf(likes[i], scale.users()));
+                ps.setLong(2, userOf(likes[i], scale.users()));
+            });
+            friendships = insertFriends(scale, activeUsers, friendRandom);
+            estimations = insertReviews(scale, popularFilms, activeUsers, reviewRandom);
+            insertEvents(scale, activeUsers, eventRandom);
+        } finally {
+            jdbc.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+        restartIdentity("users", "user_id", scale.users());
+        restartIdentity("films", "film_id", scale.films());
+        restartIdentity("directors", "director_id", scale.directors());
+        restartIdentity("reviews", "review_id", scale.reviews());
+        restartIdentity("event_feed", "event_id", scale.events());
+
+        log.info("Сгенерирован набор данных {} с зерном {} за {} мс", scale, seed,
+                (System.nanoTime() - started) / 1_000_000);
+        return new Dataset(scale, seed, friendships, estimations);
+    }
+
+    /**
+     * Лайки как отсортированные уникальные ключи {@code (film - 1) * users + (user - 1)}: пары набираются
+     * с запасом, сортируются и прореживаются, пока уникальных не станет ровно {@code scale.likes()}.
+     * Порядок ключей совпадает с первичным ключом likes, поэтому вставка идёт в конец индекса.
+     */
+    private static long[] likes(Scale scale, Zipf films, Zipf users, SplittableRandom random) {
+        long[] keys = new long[0];
+        int unique = 0;
+        while (unique < scale.likes()) {
+            int missing = (int) (scale.likes() - unique);
+            long[] next = Arrays.copyOf(keys, unique + missing + missing / 8 + 16);
+            for (int i = unique; i < next.length; i++) {
+                next[i] = (long) (films.next(random) - 1) * scale.users() + users.next(random) - 1;
+            }
+            Arrays.sort(next);
+            unique = 0;
+            for (int i = 0; i < next.length; i++) {
+                if (i == 0 || next[i] != next[i - 1]) {
+                    next[unique++] = next[i];
+                }
+            }
+            keys = next;
+        }
+        // лишние уникальные ключи отбрасываются случайно, а не с конца, чтобы не обделить пользователей с большими ID
+        for (int i = unique - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+        long[] likes = Arrays.copyOf(keys, (int) scale.likes());
+        Arrays.sort(likes);
+        return likes;
+    }
+
+    private void insertUsers(Scale scale, SplittableRandom random) {
+        batch("INSERT INTO users (user_id, email, login, name, birthday) VALUES (?, ?, ?, ?, ?)", scale.users(),
+                (ps, i) -> {
+                    long userId = i + 1;
+                    ps.setLong(1, userId);
+                    ps.setString(2, "user" + userId + "@example.com");
+                    ps.setString(3, "user" + userId);
+                    ps.setString(4, "User " + userId);
+                    ps.setDate(5, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(60 * 365))));
+                });
+    }
+
+    private void insertDirectors(Scale scale) {
+        batch("INSERT INTO directors (director_id, name) VALUES (?, ?)", scale.directors(), (ps, i) -> {
+            ps.setLong(1, i + 1);
+            ps.setString(2, SURNAMES[i % SURNAMES.length] + " " + (i + 1));
+        });
+    }
+
+    private void insertFilms(Scale scale, int[] likeCounts, SplittableRandom random) {
+        Zipf directors = new Zipf(scale.directors(), FILM_EXPONENT, permutation(scale.directors(), random));
+        int[] filmDirectors = new int[scale.films() + 1];
+        int[][] filmGenres = new int[scale.films() + 1][];
+        batch("""
+                INSERT INTO films (film_id, name, description, release_date, duration, mpa_id, like_count)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, scale.films(), (ps, i) -> {
+            int filmId = i + 1;
+            ps.setLong(1, filmId);
+            ps.setString(2, TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " "
+                    + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + filmId);
+            ps.setString(3, "Описание фильма " + filmId);
+            ps.setDate(4, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(75 * 365))));
+            ps.setInt(5, 60 + random.nextInt(150));
+            ps.setLong(6, 1 + random.nextInt(MPA_COUNT));
+            ps.setInt(7, likeCounts[filmId]);
+            filmDirectors[filmId] = directors.next(random);
+            // от одного до трёх разных жанров подряд по кругу
+            int first = random.nextInt(GENRE_COUNT);
+            int[] genres = new int[1 + random.nextInt(3)];
+            for (int g = 0; g < genres.length; g++) {
+                genres[g] = 1 + (first + g) % GENRE_COUNT;
+            }
+            filmGenres[filmId] = genres;
+        });
+        batch("INSERT INTO film_directors (film_id, director_id) VALUES (?, ?)", scale.films(), (ps, i) -> {
+            ps.setLong(1, i + 1);
+            ps.setLong(2, filmDirectors[i + 1]);
+        });
+        int[] genreRowFilm = new int[Arrays.stream(filmGenres, 1, filmGenres.length).mapToInt(g -> g.length).sum()];
+        int[] genreRowGenre = new int[genreRowFilm.length];
+        int row = 0;
+        for (int filmId = 1; filmId <= scale.films(); filmId++) {
+            for (int genreId : filmGenres[filmId]) {
+                genreRowFilm[row] = filmId;
+                genreRowGenre[row++] = genreId;
+            }
+        }
+        batch("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", genreRowFilm.length, (ps, i) -> {
+            ps.setLong(1, genreRowFilm[i]);
+            ps.setLong(2, genreRowGenre[i]);
+        });
+    }
+
+    /**
+     * Каждый пользователь подписан в среднем на {@code friendsPerUser} других; популярных чаще добавляют в друзья.
+     */
+    private long insertFriends(Scale scale, Zipf users, SplittableRandom random) {
+        int maxFriends = Math.min(scale.users() - 1, scale.friendsPerUser() * 2);
+        long[] pairs = new long[scale.users() * maxFriends];
+        int count = 0;
+        Set<Integer> friends = new HashSet<>();
+        for (int userId = 1; userId <= scale.users(); userId++) {
+            int wanted = Math.min(maxFriends, random.nextInt(maxFriends + 1));
+            friends.clear();
+            while (friends.size() < wanted) {
+                int friendId = users.next(random);
+                if (friendId != userId && friends.add(friendId)) {
+                    pairs[count++] = (long) userId << 32 | friendId;
+                }
+            }
+        }
+        batch("INSERT INTO friends (user_id, friend_id, confirmed) VALUES (?, ?, TRUE)", count, (ps, i) -> {
+            ps.setLong(1, pairs[i] >>> 32);
+            ps.setLong(2, pairs[i] & 0xFFFFFFFFL);
+        });
+        return count;
+    }
+
+    private long insertReviews(Scale scale, Zipf films, Zipf users, SplittableRandom random) {
+        int maxEstimations = Math.min(scale.users() - 1, scale.estimationsPerReview() * 2);
+        int[] useful = new int[scale.reviews() + 1];
+        long[][] estimations = new long[scale.reviews() + 1][];
+        Set<Integer> voters = new HashSet<>();
+        for (int reviewId = 1; reviewId <= scale.reviews(); reviewId++) {
+            int wanted = random.nextInt(maxEstimations + 1);
+            long[] votes = new long[wanted];
+            voters.clear();
+            while (voters.size() < wanted) {
+                int userId = users.next(random);
+                if (voters.add(userId)) {
+                    boolean like = random.nextInt(10) < 7;
+                    useful[reviewId] += like ? 1 : -1;
+                    votes[voters.size() - 1] = (long) userId << 1 | (like ? 1 : 0);
+                }
+            }
+            estimations[reviewId] = votes;
+        }
+        batch("""
+                INSERT INTO reviews (review_id, content, is_positive, user_id, film_id, useful)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, scale.reviews(), (ps, i) -> {
+            int reviewId = i + 1;
+            ps.setLong(1, reviewId);
+            ps.setString(2, "Отзыв " + reviewId);
+            ps.setBoolean(3, random.nextInt(4) != 0);
+            ps.setLong(4, users.next(random));
+            ps.setLong(5, films.next(random));
+            ps.setInt(6, useful[reviewId]);
+        });
+        int total = Arrays.stream(estimations, 1, estimations.length).mapToInt(votes -> votes.length).sum();
+        int[] position = {1, 0};
+        batch("INSERT INTO estimations (review_id, user_id, is_like) VALUES (?, ?, ?)", total, (ps, i) -> {
+            while (position[1] == estimations[position[0]].length) {
+                position[0]++;
+                position[1] = 0;
+            }
+            long vote = estimations[position[0]][position[1]++];
+            ps.setLong(1, position[0]);
+            ps.setLong(2, vote >>> 1);
+            ps.setBoolean(3, (vote & 1) == 1);
+        });
+        return total;
+    }
+
+    /**
+     * Лента: активные пользователи пишут больше событий, в основном лайки; одно событие в секунду.
+     */
+    private void insertEvents(Scale scale, Zipf users, SplittableRandom random) {
+        batch("""
+                INSERT INTO event_feed (event_id, user_id, type_id, operation_id, entity_id, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, (int) scale.events(), (ps, i) -> {
+            int type = random.nextInt(10);
+            long typeId = type < 6 ? 1 : type < 8 ? 3 : 2;
+            ps.setLong(1, i + 1);
+            ps.setLong(2, users.next(random));
+            ps.setLong(3, typeId);
+            ps.setLong(4, random.nextInt(5) == 0 ? 1 : 2);
+            ps.setLong(5, 1 + random.nextInt(typeId == 3 ? scale.users() : scale.films()));
+            ps.setTimestamp(6, Timestamp.valueOf(FIRST_EVENT.plusSeconds(i)));
+        });
+    }
+
+    private void restartIdentity(String table, String column, long lastId) {
+        jdbc.execute("ALTER TABLE %s ALTER COLUMN %s RESTART WITH %d".formatted(table, column, lastId + 1));
+    }
+
+    private void batch(String sql, int rows, RowWriter writer) {
+        jdbc.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < rows; i++) {
+                    writer.write(ps, i);
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+                ps.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static int filmOf(long like, int users) {
+        return (int) (like / users) + 1;
+    }
+
+    private static int userOf(long like, int users) {
+        return (int) (like % users) + 1;
+    }
+
+    private static int[] permutation(int size, SplittableRandom random) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    /**
+     * Распределение Ципфа по рангам 1..n через таблицу накопленных вероятностей; ранг переводится в ID
+     * перестановкой, чтобы популярность не совпадала с порядком ID.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+        private final int[] ids;
+
+        Zipf(int size, double exponent, int[] ids) {
+            this.cumulative = new double[size];
+            this.ids = ids;
+            double sum = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+            return ids[rank];
+        }
+    }
+}
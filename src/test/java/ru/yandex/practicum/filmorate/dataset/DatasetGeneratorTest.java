@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Dataset;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatasetGeneratorTest {
+    private static final Scale SCALE = Scale.ofLikes(20_000);
+    private static final List<String> TABLES = List.of(
+            "SELECT * FROM users ORDER BY user_id",
+            "SELECT * FROM films ORDER BY film_id",
+            "SELECT * FROM film_genre ORDER BY film_id, genre_id",
+            "SELECT * FROM film_directors ORDER BY film_id",
+            "SELECT * FROM likes ORDER BY user_id, film_id",
+            "SELECT * FROM friends ORDER BY user_id, friend_id",
+            "SELECT * FROM reviews ORDER BY review_id",
+            "SELECT * FROM estimations ORDER BY review_id, user_id",
+            "SELECT * FROM event_feed ORDER BY event_id");
+
+    private final List<SingleConnectionDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        dataSources.forEach(SingleConnectionDataSource::destroy);
+    }
+
+    @Test
+    public void testSameSeedGivesSameRows() {
+        JdbcTemplate first = generate(42);
+        JdbcTemplate second = generate(42);
+        JdbcTemplate other = generate(43);
+
+        for (String table : TABLES) {
+            assertThat(second.queryForList(table)).as(table).isEqualTo(first.queryForList(table));
+        }
+        assertThat(other.queryForList(TABLES.get(4))).isNotEqualTo(first.queryForList(TABLES.get(4)));
+    }
+
+    @Test
+    public void testRowCountsAndDerivedColumnsMatchScale() {
+        JdbcTemplate jdbc = generate(7);
+
+        assertThat(count(jdbc, "users")).isEqualTo(SCALE.users());
+        assertThat(count(jdbc, "films")).isEqualTo(SCALE.films());
+        assertThat(count(jdbc, "likes")).isEqualTo(SCALE.likes());
+        assertThat(count(jdbc, "reviews")).isEqualTo(SCALE.reviews());
+        assertThat(count(jdbc, "event_feed")).isEqualTo(SCALE.events());
+        assertThat(jdbc.queryForObject("""
+                SELECT COUNT(*) FROM films f
+                WHERE f.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id)
+                """, Long.class)).isZero();
+        assertThat(jdbc.queryForObject("""
+                SELECT COUNT(*) FROM reviews r
+                WHERE r.useful <> (SELECT COALESCE(SUM(CASE WHEN e.is_like THEN 1 ELSE -1 END), 0)
+                                   FROM estimations e WHERE e.review_id = r.review_id)
+                """, Long.class)).isZero();
+        // новые строки приложения не конфликтуют со сгенерированными ID
+        jdbc.update("INSERT INTO users (email, login, name, birthday) VALUES ('new@mail.ru', 'new', 'New', '2000-01-01')");
+        assertThat(jdbc.queryForObject("SELECT MAX(user_id) FROM users", Long.class)).isEqualTo(SCALE.users() + 1L);
+    }
+
+    @Test
+    public void testLikesFollowPowerLaw() {
+        JdbcTemplate jdbc = generate(7);
+
+        // у десятой части самых популярных фильмов больше 40% лайков, при равномерном распределении было бы 10%
+        Long topLikes = jdbc.queryForObject("SELECT SUM(like_count) FROM (SELECT like_count FROM films "
+                + "ORDER BY like_count DESC LIMIT " + SCALE.films() / 10 + ")", Long.class);
+        assertThat(topLikes).isGreaterThan(SCALE.likes() * 2 / 5);
+        Map<String, Object> friends = jdbc.queryForMap(
+                "SELECT MAX(c) AS max_followers, AVG(c) AS avg_followers FROM "
+                        + "(SELECT COUNT(*) AS c FROM friends GROUP BY friend_id)");
+        assertThat(((Number) friends.get("MAX_FOLLOWERS")).doubleValue())
+                .isGreaterThan(((Number) friends.get("AVG_FOLLOWERS")).doubleValue() * 10);
+    }
+
+    private JdbcTemplate generate(long seed) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:dataset-" + UUID.randomUUID(), "sa", "", true);
+        dataSources.add(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        new DatasetGenerator(dataSource, seed).generate(SCALE);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static long count(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
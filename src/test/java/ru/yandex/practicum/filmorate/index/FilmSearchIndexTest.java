@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcDirectorRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcGenreRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcMpaRepository;
+import ru.yandex.practicum.filmorate.mappers.DirectorRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.mappers.MpaRatingRowMapper;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.MpaRating;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FilmSearchIndex.class, JdbcFilmRepository.class, FilmRowMapper.class, FilmExtractor.class, JdbcGenreRepository.class, GenreRowMapper.class, JdbcMpaRepository.class, MpaRatingRowMapper.class, JdbcDirectorRepository.class, DirectorRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class FilmSearchIndexTest {
+    private static final List<String> QUERIES = List.of("", "а", "ол", "ЁЛК", "ёлки", "КРУК", "нолан", "Film", "TEST",
+            "ан", "Тарантино", "zzz", "елки");
+
+    @Autowired
+    private FilmSearchIndex searchIndex;
+
+    @Autowired
+    private JdbcFilmRepository filmRepository;
+
+    @Autowired
+    private JdbcDirectorRepository directorRepository;
+
+    @BeforeEach
+    public void setUp() {
+        createFilm("Ёлки", 2L);
+        createFilm("ЁЛКИ-палки", 1L, 3L);
+        createFilm("Большой куш", 4L);
+        createFilm("Криминальное чтиво", 1L);
+        createFilm("Film Noir");
+        searchIndex.rebuild();
+    }
+
+    @Test
+    public void testSearchMatchesSql() {
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testIndexFollowsFilmAndDirectorChanges() {
+        Film film = createFilm("Крупная рыба", 5L);
+        searchIndex.putFilm(film);
+        Film renamed = filmRepository.getFilmById(3L).orElseThrow();
+        renamed.setName("Большой круг");
+        renamed.setDirectors(new HashSet<>(List.of(Director.builder().id(6L).build())));
+        filmRepository.updateFilm(renamed);
+        searchIndex.putFilm(filmRepository.getFilmById(3L).orElseThrow());
+        filmRepository.deleteFilm(4L);
+        searchIndex.removeFilm(4L);
+        Director director = directorRepository.updateDirector(new Director(2L, "Кристофер Джонатан Нолан"));
+        searchIndex.putDirector(director);
+        directorRepository.deleteDirector(3L);
+        searchIndex.removeDirector(3L);
+
+        assertThat(searchIndex.search("КРУ", true, false)).containsExactlyInAnyOrder(3L, film.getId());
+        assertThat(searchIndex.search("джонатан", false, true)).containsExactly(2L);
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testNormalizeFoldsCyrillicCase() {
+        assertThat(FilmSearchIndex.normalize("ЁЛКИ Палки")).isEqualTo(FilmSearchIndex.normalize("ёлки пАЛКИ"));
+    }
+
+    private void assertMatchesSql() {
+        for (String query : QUERIES) {
+            assertThat(searchIndex.search(query, true, false)).as("title: %s", query)
+                    .isEqualTo(ids(filmRepository.getResultSearchForFilmsByTitle(query)));
+            assertThat(searchIndex.search(query, false, true)).as("director: %s", query)
+                    .isEqualTo(ids(filmRepository.getResultSearchForFilmsByDirector(query)));
+            assertThat(searchIndex.search(query, true, true)).as("title,director: %s", query)
+                    .isEqualTo(ids(filmRepository.getResultSearchForFilmsByDirectorAndTitle(query)));
+        }
+    }
+
+    private Film createFilm(String name, Long... directorIds) {
+        Set<Director> directors = Arrays.stream(directorIds)
+                .map(id -> Director.builder().id(id).build())
+                .collect(Collectors.toSet());
+        return filmRepository.createFilm(Film.builder().name(name).description("Описание")
+                .releaseDate(LocalDate.of(2000, 1, 1)).duration(100).mpa(MpaRating.builder().id(1L).build())
+                .genres(new HashSet<>()).directors(directors).build());
+    }
+
+    private static Set<Long> ids(Collection<Film> films) {
+        return films.stream().map(Film::getId).collect(Collectors.toSet());
+    }
+}
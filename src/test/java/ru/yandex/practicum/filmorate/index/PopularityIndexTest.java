@@ -0,0 +1,156 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcDirectorRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcFilmRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcGenreRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcLikeRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcMpaRepository;
+import ru.yandex.practicum.filmorate.mappers.DirectorRowMapper;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.GenreRowMapper;
+import ru.yandex.practicum.filmorate.mappers.MpaRatingRowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.MpaRating;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PopularityIndex.class, JdbcFilmRepository.class, FilmRowMapper.class, FilmExtractor.class, JdbcGenreRepository.class, GenreRowMapper.class, JdbcMpaRepository.class, MpaRatingRowMapper.class, JdbcDirectorRepository.class, DirectorRowMapper.class, JdbcLikeRepository.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PopularityIndexTest {
+    private static final List<Integer> YEARS = List.of(PopularityIndex.ANY_YEAR, 2019, 2020, 2021, 2022);
+    private static final List<Long> GENRES = Arrays.asList(null, 1L, 2L, 3L, 4L, 5L, 6L);
+
+    @Autowired
+    private PopularityIndex popularityIndex;
+
+    @Autowired
+    private JdbcFilmRepository filmRepository;
+
+    @Autowired
+    private JdbcLikeRepository likeRepository;
+
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 30; i++) {
+            Set<Genre> genres = new HashSet<>();
+            for (int g = 0; g < random.nextInt(3); g++) {
+                genres.add(Genre.builder().id(1L + random.nextInt(6)).build());
+            }
+            Film film = Film.builder().name("Film " + i).description("Description " + i)
+                    .releaseDate(LocalDate.of(2019 + random.nextInt(4), 1 + random.nextInt(12), 1)).duration(100)
+                    .mpa(MpaRating.builder().id(1L).build()).genres(genres).build();
+            popularityIndex.putFilm(filmRepository.createFilm(film));
+        }
+    }
+
+    @Test
+    public void testTopFilmsMatchSqlAfterLikeChanges() {
+        for (int i = 0; i < 200; i++) {
+            long filmId = 1L + random.nextInt(32);
+            long userId = 1L + random.nextInt(3);
+            if (random.nextInt(4) == 0) {
+                if (likeRepository.removeLike(filmId, userId)) {
+                    popularityIndex.likeRemoved(filmId);
+                }
+            } else if (likeRepository.addLike(filmId, userId)) {
+                popularityIndex.likeAdded(filmId);
+            }
+        }
+
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testRebuildMatchesSql() {
+        for (int i = 0; i < 100; i++) {
+            likeRepository.addLike(1L + random.nextInt(32), 1L + random.nextInt(3));
+        }
+
+        popularityIndex.rebuild();
+
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testUpdatedAndDeletedFilmsAreReindexed() {
+        likeRepository.addLike(3L, 1L);
+        popularityIndex.likeAdded(3L);
+        Film film = filmRepository.getFilmById(3L).orElseThrow();
+        film.setReleaseDate(LocalDate.of(2022, 6, 1));
+        film.setGenres(new HashSet<>(List.of(Genre.builder().id(6L).build())));
+        popularityIndex.putFilm(filmRepository.updateFilm(film));
+        filmRepository.deleteFilm(4L);
+        popularityIndex.removeFilm(4L);
+
+        assertThat(popularityIndex.getTopFilmIds(1, 6L, 2022)).containsExactly(3L);
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testCheckConsistencyReportsStaleIndex() {
+        assertThat(popularityIndex.checkConsistency(100)).isEmpty();
+
+        // лайк мимо индекса: база и индекс расходятся
+        likeRepository.addLike(5L, 1L);
+        likeRepository.addLike(5L, 2L);
+        likeRepository.addLike(5L, 3L);
+
+        assertThat(popularityIndex.checkConsistency(100)).isNotEmpty();
+        popularityIndex.rebuild();
+        assertThat(popularityIndex.checkConsistency(100)).isEmpty();
+    }
+
+    @Test
+    public void testPagesConcatenateToFullRanking() {
+        for (int i = 0; i < 60; i++) {
+            long filmId = 1L + random.nextInt(32);
+            if (likeRepository.addLike(filmId, 1L + random.nextInt(3))) {
+                popularityIndex.likeAdded(filmId);
+            }
+        }
+
+        for (Long genreId : GENRES) {
+            List<Long> pages = new ArrayList<>();
+            List<Long> page = popularityIndex.getTopFilmIds(4, genreId, PopularityIndex.ANY_YEAR);
+            while (!page.isEmpty()) {
+                pages.addAll(page);
+                long last = page.get(page.size() - 1);
+                page = popularityIndex.getTopFilmIdsAfter(4, genreId, PopularityIndex.ANY_YEAR,
+                        popularityIndex.getLikes(last), last);
+            }
+            assertThat(pages).isEqualTo(popularityIndex.getTopFilmIds(1000, genreId, PopularityIndex.ANY_YEAR));
+        }
+    }
+
+    private void assertMatchesSql() {
+        for (Long genreId : GENRES) {
+            for (int year : YEARS) {
+                for (int count : List.of(1, 5, 100)) {
+                    List<Long> expected = filmRepository.getPopularFilms(count, genreId, year).stream()
+                            .map(Film::getId)
+                            .toList();
+                    assertThat(filmRepository.getPopularFilmIds(count, genreId, year)).isEqualTo(expected);
+                    assertThat(popularityIndex.getTopFilmIds(count, genreId, year))
+                            .as("genreId=%s, year=%s, count=%s", genreId, year, count)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PopularityRankingTest {
+    private static final int FILMS = 5_000;
+
+    @Test
+    public void testMatchesSortedModelAcrossBlockSplits() {
+        Random random = new Random(42);
+        PopularityRanking ranking = new PopularityRanking();
+        Map<Long, Integer> likes = new HashMap<>();
+        // почти все фильмы без лайков, как в каталоге: корзина нуля делится на много блоков
+        for (long filmId = FILMS; filmId >= 1; filmId--) {
+            ranking.add(filmId, 0);
+            likes.put(filmId, 0);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            long filmId = 1 + random.nextInt(FILMS);
+            int oldLikes = likes.get(filmId);
+            int newLikes = oldLikes == 0 || random.nextBoolean() ? oldLikes + 1 : oldLikes - 1;
+            ranking.move(filmId, oldLikes, newLikes);
+            likes.put(filmId, newLikes);
+        }
+        for (long filmId = 1; filmId <= FILMS; filmId += 7) {
+            ranking.remove(filmId, likes.remove(filmId));
+        }
+
+        List<Long> expected = likes.keySet().stream()
+                .sorted(Comparator.comparingInt((Long filmId) -> likes.get(filmId)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+        List<Long> top = new ArrayList<>();
+        ranking.top(FILMS, top);
+        assertThat(top).isEqualTo(expected);
+
+        Long after = expected.get(1000);
+        List<Long> page = new ArrayList<>();
+        ranking.topAfter(likes.get(after), after, 600, page);
+        assertThat(page).isEqualTo(expected.subList(1001, 1601));
+    }
+}
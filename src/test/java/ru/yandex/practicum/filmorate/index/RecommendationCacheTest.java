@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+public class RecommendationCacheTest {
+    private RecommendationEngine recommendationEngine;
+    private RecommendationCache recommendationCache;
+
+    @BeforeEach
+    public void setUp() {
+        Map<Long, List<Long>> likes = Map.of(
+                1L, List.of(1L, 2L),
+                2L, List.of(1L, 2L, 3L),
+                3L, List.of(4L),
+                4L, List.of(7L));
+        LikeRepository likeRepository = mock(LikeRepository.class);
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            likes.keySet().stream().sorted()
+                    .forEach(userId -> likes.get(userId).forEach(filmId -> consumer.accept(userId, filmId)));
+            return null;
+        }).when(likeRepository).forEachLike(any());
+        recommendationEngine = new RecommendationEngine(likeRepository, "exact", 32, 2);
+        recommendationEngine.rebuild();
+        // пересчёт выполняется в вызывающем потоке, чтобы результат был виден сразу
+        recommendationCache = new RecommendationCache(recommendationEngine, 100, Duration.ofMinutes(5), Runnable::run);
+    }
+
+    @Test
+    public void testRepeatedRequestIsHit() {
+        assertThat(recommendationCache.get(1L)).containsExactly(3L);
+        assertThat(recommendationCache.get(1L)).containsExactly(3L);
+
+        assertThat(recommendationCache.stats().missCount()).isEqualTo(1);
+        assertThat(recommendationCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNeighbourLikeRefreshesEntry() {
+        recommendationCache.get(1L);
+
+        recommendationEngine.likeAdded(2L, 5L);
+        recommendationCache.likeChanged(2L, 5L);
+
+        assertThat(recommendationCache.get(1L)).containsExactly(3L, 5L);
+    }
+
+    @Test
+    public void testUserWithSameFilmRefreshesEntry() {
+        recommendationCache.get(1L);
+
+        recommendationEngine.likeAdded(4L, 1L);
+        recommendationCache.likeChanged(4L, 1L);
+        recommendationEngine.likeAdded(4L, 2L);
+        recommendationCache.likeChanged(4L, 2L);
+
+        assertThat(recommendationCache.get(1L)).containsExactly(3L, 7L);
+    }
+
+    @Test
+    public void testOwnLikeIsFilteredBeforeRefresh() {
+        recommendationCache.get(1L);
+
+        recommendationEngine.likeAdded(1L, 3L);
+
+        assertThat(recommendationCache.get(1L)).isEmpty();
+    }
+
+    @Test
+    public void testRemovedUserIsDroppedFromNeighbours() {
+        recommendationCache.get(1L);
+
+        recommendationEngine.removeUser(2L);
+        recommendationCache.userRemoved(2L);
+
+        assertThat(recommendationCache.get(1L)).isEmpty();
+    }
+
+    @Test
+    public void testConcurrentMissDoesNotWaitForLoad() {
+        RecommendationEngine engine = spy(recommendationEngine);
+        RecommendationCache cache = new RecommendationCache(engine, 100, Duration.ofMinutes(5), Runnable::run);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                // второй читатель того же ключа не должен ждать, пока первый досчитает рекомендации
+                assertThat(CompletableFuture.supplyAsync(() -> cache.get(1L)).get(5, TimeUnit.SECONDS))
+                        .containsExactly(3L);
+            }
+            return invocation.callRealMethod();
+        }).when(engine).recommend(1L, RecommendationMode.EXACT);
+
+        assertThat(cache.get(1L)).containsExactly(3L);
+        assertThat(cache.get(1L)).containsExactly(3L);
+    }
+
+    @Test
+    public void testEvictionWhenFull() {
+        RecommendationCache smallCache = new RecommendationCache(recommendationEngine, 1, Duration.ofMinutes(5),
+                Runnable::run);
+
+        for (long userId = 1; userId <= 4; userId++) {
+            smallCache.get(userId);
+        }
+
+        assertThat(smallCache.stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    public void testMetricsArePublished() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RecommendationCache monitoredCache = new RecommendationCache(recommendationEngine, meterRegistry, 100,
+                Duration.ofMinutes(5));
+        try {
+            monitoredCache.get(1L);
+            monitoredCache.get(1L);
+
+            assertThat(meterRegistry.get("cache.gets").tags("cache", "recommendations", "result", "hit")
+                    .functionCounter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.gets").tags("cache", "recommendations", "result", "miss")
+                    .functionCounter().count()).isEqualTo(1);
+        } finally {
+            monitoredCache.shutdown();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcDirectorRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcGenreRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcLikeRepository;
+import ru.yandex.practicum.filmorate.dao.jdbc.JdbcUserRepository;
+import ru.yandex.practicum.filmorate.mappers.FilmExtractor;
+import ru.yandex.practicum.filmorate.mappers.FilmRowMapper;
+import ru.yandex.practicum.filmorate.mappers.UserRowMapper;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RecommendationEngine.class, JdbcLikeRepository.class, JdbcUserRepository.class, UserRowMapper.class, FilmExtractor.class, FilmRowMapper.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class RecommendationEngineTest {
+    private static final int USERS = 12;
+    private static final int FILMS = 15;
+
+    @Autowired
+    private RecommendationEngine recommendationEngine;
+
+    @Autowired
+    private JdbcLikeRepository likeRepository;
+
+    @Autowired
+    private JdbcUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(11);
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO users (email, login, name, birthday)
+                SELECT 'rec' || x || '@example.com', 'rec' || x, 'Rec ' || x, DATE '1990-01-01'
+                FROM SYSTEM_RANGE(4, ?)
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO films (name, description, release_date, duration, mpa_id)
+                SELECT 'Film ' || x, 'Description', DATE '2000-01-01', 100, 1
+                FROM SYSTEM_RANGE(3, ?)
+                """, FILMS);
+    }
+
+    @Test
+    public void testRecommendationsMatchSqlAfterRebuild() {
+        for (int i = 0; i < 60; i++) {
+            likeRepository.addLike(1L + random.nextInt(FILMS), 1L + random.nextInt(USERS));
+        }
+
+        recommendationEngine.rebuild();
+
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testRecommendationsMatchSqlAfterIncrementalUpdates() {
+        recommendationEngine.rebuild();
+        for (int i = 0; i < 150; i++) {
+            long filmId = 1L + random.nextInt(FILMS);
+            long userId = 1L + random.nextInt(USERS);
+            if (random.nextInt(4) == 0) {
+                if (likeRepository.removeLike(filmId, userId)) {
+                    recommendationEngine.likeRemoved(userId, filmId);
+                }
+            } else if (likeRepository.addLike(filmId, userId)) {
+                recommendationEngine.likeAdded(userId, filmId);
+            }
+        }
+        userRepository.deleteUser(5L);
+        recommendationEngine.removeUser(5L);
+
+        assertMatchesSql();
+    }
+
+    @Test
+    public void testIntersectionSize() {
+        long[] small = {3, 70};
+        long[] large = new long[100];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = i * 2L;
+        }
+
+        assertThat(RecommendationEngine.intersectionSize(small, large)).isEqualTo(1);
+        assertThat(RecommendationEngine.intersectionSize(new long[]{1, 2, 4, 6}, new long[]{2, 3, 4, 5, 6}))
+                .isEqualTo(3);
+        assertThat(RecommendationEngine.intersectionSize(new long[0], large)).isZero();
+    }
+
+    private void assertMatchesSql() {
+        for (long userId = 1; userId <= USERS; userId++) {
+            List<Long> expected = userRepository.getUserRecommendations(userId).stream()
+                    .map(Film::getId)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            assertThat(recommendationEngine.recommend(userId)).as("user %s", userId).isEqualTo(expected);
+        }
+    }
+}
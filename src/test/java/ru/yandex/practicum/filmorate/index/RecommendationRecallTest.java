@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Сравнивает приближённые рекомендации (MinHash/LSH) с точными на синтетических лайках:
+ * пользователи разбиты на группы со своим набором любимых фильмов плюс немного случайных лайков.
+ */
+@Slf4j
+public class RecommendationRecallTest {
+    private static final int USERS = 3000;
+    private static final int GROUPS = 30;
+    private static final int FILMS_PER_GROUP = 40;
+    private static final int GROUP_LIKES = 15;
+    private static final int RANDOM_LIKES = 3;
+
+    private final Random random = new Random(7);
+    private final SortedMap<Long, SortedSet<Long>> likes = new TreeMap<>();
+    private RecommendationEngine recommendationEngine;
+
+    @BeforeEach
+    public void setUp() {
+        int filmCount = GROUPS * FILMS_PER_GROUP;
+        for (long userId = 1; userId <= USERS; userId++) {
+            int group = random.nextInt(GROUPS);
+            SortedSet<Long> userLikes = likes.computeIfAbsent(userId, id -> new TreeSet<>());
+            while (userLikes.size() < GROUP_LIKES) {
+                userLikes.add(1L + group * FILMS_PER_GROUP + random.nextInt(FILMS_PER_GROUP));
+            }
+            for (int i = 0; i < RANDOM_LIKES; i++) {
+                userLikes.add(1L + random.nextInt(filmCount));
+            }
+        }
+        LikeRepository likeRepository = mock(LikeRepository.class);
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            likes.forEach((userId, filmIds) -> filmIds.forEach(filmId -> consumer.accept(userId, filmId)));
+            return null;
+        }).when(likeRepository).forEachLike(any());
+        recommendationEngine = new RecommendationEngine(likeRepository, "exact", 32, 2);
+        recommendationEngine.rebuild();
+    }
+
+    @Test
+    public void testApproximateRecallAfterRebuild() {
+        assertThat(recall()).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    public void testApproximateRecallAfterIncrementalUpdates() {
+        for (int i = 0; i < USERS; i++) {
+            long userId = 1L + random.nextInt(USERS);
+            List<Long> userLikes = new ArrayList<>(likes.get(userId));
+            Long removed = userLikes.get(random.nextInt(userLikes.size()));
+            likes.get(userId).remove(removed);
+            recommendationEngine.likeRemoved(userId, removed);
+            Long added = userLikes.get(random.nextInt(userLikes.size())) + 1;
+            likes.get(userId).add(added);
+            recommendationEngine.likeAdded(userId, added);
+        }
+
+        assertThat(recall()).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    public void testCandidatesAreFractionOfUsers() {
+        MinHashLsh lsh = new MinHashLsh(32, 2);
+        likes.forEach((userId, filmIds) -> lsh.put(userId, filmIds.stream().mapToLong(Long::longValue).toArray()));
+        lsh.remove(1L);
+
+        long candidates = 0;
+        for (long userId = 2; userId <= USERS; userId++) {
+            Set<Long> userCandidates = lsh.candidates(userId);
+            assertThat(userCandidates).doesNotContain(1L, userId);
+            candidates += userCandidates.size();
+        }
+
+        assertThat(lsh.candidates(1L)).isEmpty();
+        assertThat(candidates / (USERS - 1)).isLessThan(USERS / GROUPS * 2);
+    }
+
+    /**
+     * Доля точных рекомендаций, найденных приближённым режимом, по всем пользователям.
+     */
+    private double recall() {
+        long expectedTotal = 0;
+        long foundTotal = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            List<Long> exact = recommendationEngine.recommend(userId, RecommendationMode.EXACT).filmIds();
+            Set<Long> approximate = new HashSet<>(recommendationEngine.recommend(userId, RecommendationMode.APPROXIMATE).filmIds());
+            expectedTotal += exact.size();
+            foundTotal += exact.stream().filter(approximate::contains).count();
+        }
+        double recall = expectedTotal == 0 ? 1 : (double) foundTotal / expectedTotal;
+        log.info("Полнота приближённых рекомендаций: {} ({} из {})", recall, foundTotal, expectedTotal);
+        return recall;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.yandex.practicum.filmorate.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Задержки и коды ответов по эндпоинтам. Хранятся все замеры, перцентили считаются точно по отсортированному
+ * массиву — на прогонах в десятки секунд это сотни тысяч чисел, гистограмма здесь не нужна.
+ */
+public class LatencyRecorder {
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public record Summary(String endpoint, long count, long ok, long clientErrors, long serverErrors, long failures,
+                          double throughput, double p50, double p95, double p99, double max) {
+    }
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).add(latencyNanos, status);
+    }
+
+    /**
+     * Сводка по эндпоинтам, самые частые сверху, последняя строка — итог по всем запросам.
+     * Задержки в миллисекундах, пропускная способность — запросов в секунду за {@code seconds}.
+     */
+    public List<Summary> summarize(double seconds) {
+        Endpoint total = new Endpoint();
+        List<Summary> summaries = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Endpoint> entry) -> entry.getValue().size)
+                        .reversed())
+                .forEach(entry -> {
+                    summaries.add(entry.getValue().summarize(entry.getKey(), seconds));
+                    total.addAll(entry.getValue());
+                });
+        summaries.add(total.summarize("ВСЕГО", seconds));
+        return summaries;
+    }
+
+    private static final class Endpoint {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long ok;
+        private long clientErrors;
+        private long serverErrors;
+        private long failures;
+
+        synchronized void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status < 0) {
+                failures++;
+            } else if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            } else {
+                ok++;
+            }
+        }
+
+        synchronized void addAll(Endpoint other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            ok += other.ok;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+            failures += other.failures;
+        }
+
+        synchronized Summary summarize(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Summary(name, size, ok, clientErrors, serverErrors, failures, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package ru.yandex.practicum.filmorate.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Dataset;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Сквозной нагрузочный тест по HTTP. Заполняет H2 в памяти синтетическими данными {@link DatasetGenerator},
+ * поднимает приложение на свободном порту поверх этой базы и гоняет по нему смесь запросов {@link RequestMix}.
+ * Печатает пропускную способность и p50/p95/p99 по каждому эндпоинту и пишет их в JSON.
+ * <p>
+ * Параметры в виде {@code --ключ=значение}:
+ * <ul>
+ *     <li>{@code source} — файлы со смесью запросов через запятую, по умолчанию {@code classpath:load/read-mix.jsonl};</li>
+ *     <li>{@code concurrency} — число потоков-клиентов;</li>
+ *     <li>{@code rate} — целевой поток запросов в секунду, 0 — замкнутый цикл без пауз. При заданном потоке
+ *     задержка считается от запланированного момента отправки, а не от фактического, чтобы очередь
+ *     на стороне клиента не прятала медленные ответы сервера;</li>
+ *     <li>{@code warmup}, {@code duration} — прогрев и замер в формате ISO-8601 ({@code PT30S});</li>
+ *     <li>{@code likes}, {@code seed} — масштаб и зерно набора данных, см. {@link Scale#ofLikes};</li>
+ *     <li>{@code profiles} — профили Spring приложения, {@code url-options} — добавка к URL базы
+ *     (например {@code ;CACHE_SIZE=131072});</li>
+ *     <li>{@code result} — куда записать JSON с результатами.</li>
+ * </ul>
+ */
+public class LoadTest {
+    private final SimpleCommandLinePropertySource options;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadTest(String... args) {
+        this.options = new SimpleCommandLinePropertySource(args);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(args).run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        int concurrency = Integer.parseInt(option("concurrency", "8"));
+        double rate = Double.parseDouble(option("rate", "0"));
+        Duration warmup = Duration.parse(option("warmup", "PT5S"));
+        Duration duration = Duration.parse(option("duration", "PT30S"));
+        long seed = Long.parseLong(option("seed", "42"));
+        RequestMix mix = RequestMix.load(option("source", "classpath:load/read-mix.jsonl"));
+
+        String url = "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1" + option("url-options", "");
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "sa", "", true);
+        long started = System.nanoTime();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        Dataset dataset = new DatasetGenerator(dataSource, seed)
+                .generate(Scale.ofLikes(Long.parseLong(option("likes", "100000"))));
+        System.out.printf("Данные: %s за %d с%n", dataset.scale(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+
+        // база заполняется до старта: поиск, рекомендации и справочники строят кэши при запуске
+        try (ConfigurableApplicationContext context = SpringApplication.run(FilmorateApplication.class,
+                "--server.port=0",
+                "--spring.config.location=optional:file:src/main/resources/",
+                "--spring.profiles.active=" + option("profiles", ""),
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.locations=classpath:db/migration",
+                "--logging.config=classpath:load/logback-load.xml")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Приложение на порту %d, %d потоков, %s, прогрев %s, замер %s%n", port, concurrency,
+                    rate > 0 ? rate + " запр/с" : "замкнутый цикл", warmup, duration);
+            drive(mix, dataset, URI.create("http://localhost:" + port), concurrency, rate, warmup, duration, seed);
+        } finally {
+            dataSource.destroy();
+        }
+
+        List<LatencyRecorder.Summary> summaries = recorder.summarize(duration.toNanos() / 1e9);
+        print(summaries);
+        write(summaries, new File(option("result", "target/load-result.json")), concurrency, rate, duration, dataset);
+    }
+
+    private void drive(RequestMix mix, Dataset dataset, URI base, int concurrency, double rate, Duration warmup,
+                       Duration duration, long seed) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long interval = rate > 0 ? (long) (1e9 / rate) : 0;
+        AtomicLong slots = new AtomicLong();
+        SplittableRandom root = new SplittableRandom(seed);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            SplittableRandom random = root.split();
+            workers.add(Thread.ofPlatform().name("load-" + i).start(() -> {
+                while (true) {
+                    long intended;
+                    if (interval > 0) {
+                        intended = start + slots.getAndIncrement() * interval;
+                        if (intended >= end) {
+                            return;
+                        }
+                        while (System.nanoTime() < intended) {
+                            LockSupport.parkNanos(intended - System.nanoTime());
+                        }
+                    } else {
+                        intended = System.nanoTime();
+                        if (intended >= end) {
+                            return;
+                        }
+                    }
+                    RequestMix.Request request = mix.next(random, dataset);
+                    int status = send(client, base, request);
+                    if (intended >= measureFrom) {
+                        recorder.record(request.template().endpoint(), System.nanoTime() - intended, status);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static int send(HttpClient client, URI base, RequestMix.Request request) {
+        HttpRequest.BodyPublisher body = request.body() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(request.body());
+        HttpRequest httpRequest = HttpRequest.newBuilder(base.resolve(request.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(request.template().method(), body)
+                .build();
+        try {
+            return client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static void print(List<LatencyRecorder.Summary> summaries) {
+        System.out.printf("%n%-60s %8s %9s %8s %8s %8s %8s %6s %6s %6s%n", "Эндпоинт", "Запросов", "Запр/с",
+                "p50, мс", "p95, мс", "p99, мс", "max, мс", "4xx", "5xx", "сбоев");
+        for (LatencyRecorder.Summary summary : summaries) {
+            System.out.printf("%-60s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %6d %6d %6d%n", summary.endpoint(),
+                    summary.count(), summary.throughput(), summary.p50(), summary.p95(), summary.p99(),
+                    summary.max(), summary.clientErrors(), summary.serverErrors(), summary.failures());
+        }
+    }
+
+    private static void write(List<LatencyRecorder.Summary> summaries, File file, int concurrency, double rate,
+                              Duration duration, Dataset dataset) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("concurrency", concurrency);
+        result.put("rate", rate);
+        result.put("duration", duration.toString());
+        result.put("scale", dataset.scale());
+        result.put("seed", dataset.seed());
+        result.put("endpoints", summaries);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, result);
+        System.out.printf("Результаты записаны в %s%n", file);
+    }
+
+    private String option(String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,222 @@
+package ru.yandex.practicum.filmorate.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Dataset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Взвешенный набор шаблонов запросов. Шаблоны читаются из JSONL-файлов
+ * ({@code {"method": "GET", "path": "/films/{film}", "weight": 20}}) и из коллекций Postman.
+ * В путях и телах подставляются случайные ID из сгенерированного набора данных:
+ * {@code {user}}, {@code {film}}, {@code {director}}, {@code {genre}}, {@code {mpa}}, {@code {query}},
+ * {@code {n}} — сквозной номер запроса для уникальных логинов и email.
+ */
+public class RequestMix {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(user|film|director|genre|mpa|query|n)}");
+    private static final Pattern POSTMAN_VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Pattern POSTMAN_PATH_VARIABLE = Pattern.compile("/:(\\w+)");
+    private static final String NEW_USER_BODY = """
+            {"login": "load{n}", "name": "Load {n}", "email": "load{n}@example.com", "birthday": "1990-01-01"}""";
+    private static final String NEW_FILM_BODY = """
+            {"name": "Load film {n}", "description": "Нагрузочный тест", "releaseDate": "2000-01-01",
+             "duration": 100, "mpa": {"id": {mpa}}, "genres": [{"id": {genre}}]}""";
+
+    private final List<RequestTemplate> templates;
+    private final int totalWeight;
+    private final List<String> searchTerms = DatasetGenerator.searchTerms();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Шаблон запроса; {@code endpoint} — ключ для статистики, метод и путь без подстановок.
+     */
+    public record RequestTemplate(String endpoint, String method, String path, String body, int weight) {
+    }
+
+    public record Request(RequestTemplate template, String path, String body) {
+    }
+
+    public RequestMix(List<RequestTemplate> templates) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("Набор запросов пуст");
+        }
+        this.templates = List.copyOf(templates);
+        this.totalWeight = templates.stream().mapToInt(RequestTemplate::weight).sum();
+    }
+
+    /**
+     * Источники через запятую: {@code *.json} читается как коллекция Postman, остальное — как JSONL.
+     * Без префикса путь берётся из файловой системы, с {@code classpath:} — из ресурсов.
+     */
+    public static RequestMix load(String sources) throws IOException {
+        List<RequestTemplate> templates = new ArrayList<>();
+        DefaultResourceLoader loader = new DefaultResourceLoader();
+        for (String source : sources.split(",")) {
+            String location = source.trim();
+            Resource resource = loader.getResource(location.contains(":") ? location : "file:" + location);
+            try (InputStream in = resource.getInputStream()) {
+                templates.addAll(location.endsWith(".json") ? fromPostman(in) : fromJsonLines(in));
+            }
+        }
+        return new RequestMix(templates);
+    }
+
+    public List<RequestTemplate> templates() {
+        return templates;
+    }
+
+    public Request next(SplittableRandom random, Dataset dataset) {
+        int point = random.nextInt(totalWeight);
+        RequestTemplate template = templates.getFirst();
+        for (RequestTemplate candidate : templates) {
+            point -= candidate.weight();
+            if (point < 0) {
+                template = candidate;
+                break;
+            }
+        }
+        long n = sequence.incrementAndGet();
+        return new Request(template, substitute(template.path(), random, dataset, n),
+                template.body() == null ? null : substitute(template.body(), random, dataset, n));
+    }
+
+    private String substitute(String text, SplittableRandom random, Dataset dataset, long n) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = switch (matcher.group(1)) {
+                case "user" -> String.valueOf(1 + random.nextInt(dataset.users()));
+                case "film" -> String.valueOf(1 + random.nextInt(dataset.films()));
+                case "director" -> String.valueOf(1 + random.nextInt(dataset.scale().directors()));
+                case "genre" -> String.valueOf(1 + random.nextInt(6));
+                case "mpa" -> String.valueOf(1 + random.nextInt(5));
+                case "query" -> searchTerms.get(random.nextInt(searchTerms.size()));
+                default -> String.valueOf(n);
+            };
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    static List<RequestTemplate> fromJsonLines(InputStream in) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<RequestTemplate> templates = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = mapper.readTree(line);
+            String method = node.get("method").asText();
+            String path = node.get("path").asText();
+            templates.add(new RequestTemplate(method + " " + path, method, path,
+                    node.hasNonNull("body") ? node.get("body").toString() : null, node.path("weight").asInt(1)));
+        }
+        return templates;
+    }
+
+    /**
+     * Коллекция Postman: скрипты не исполняются. Переменные коллекции заменяются случайными ID по смыслу
+     * (внутри папок MPA и Genre {@code {{id}}} — рейтинг и жанр, переменные с film — фильм, остальные —
+     * пользователь), а тела, которые собирает скрипт перед запросом, генерируются заново. Запросы с
+     * намеренно неверными телами воспроизводятся как есть и попадают в статистику ответами 4xx.
+     */
+    static List<RequestTemplate> fromPostman(InputStream in) throws IOException {
+        List<RequestTemplate> templates = new ArrayList<>();
+        collectPostman(new ObjectMapper().readTree(in).get("item"), "", templates);
+        return templates;
+    }
+
+    private static void collectPostman(JsonNode items, String folder, List<RequestTemplate> templates) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collectPostman(item.get("item"), item.get("name").asText(), templates);
+                continue;
+            }
+            JsonNode request = item.get("request");
+            String method = request.get("method").asText();
+            String path = request.get("url").get("raw").asText().replace("{{baseUrl}}", "");
+            path = replacePathVariables(path, request.get("url").path("variable"));
+            path = replacePostmanVariables(path, folder);
+            String resource = path.startsWith("/films") ? "film" : "user";
+            String body;
+            if (buildsBodyInScript(item)) {
+                body = resource.equals("film") ? NEW_FILM_BODY : NEW_USER_BODY;
+                if (method.equals("PUT")) {
+                    body = "{\"id\": {" + resource + "}, " + body.substring(1);
+                }
+            } else {
+                String raw = request.path("body").path("raw").asText("");
+                body = raw.isBlank() ? null : replacePostmanVariables(raw, folder);
+            }
+            templates.add(new RequestTemplate(method + " " + path, method, path, body, 1));
+        }
+    }
+
+    private static boolean buildsBodyInScript(JsonNode item) {
+        for (JsonNode event : item.path("event")) {
+            if (event.path("listen").asText().equals("prerequest")
+                    && event.path("script").path("exec").toString().contains("pm.request.body.update")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String replacePathVariables(String path, JsonNode variables) {
+        Matcher matcher = POSTMAN_PATH_VARIABLE.matcher(path);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = null;
+            for (JsonNode variable : variables) {
+                if (variable.path("key").asText().equals(matcher.group(1))) {
+                    value = variable.path("value").asText(null);
+                }
+            }
+            if (value == null || value.isBlank() || value.contains("{{")) {
+                value = path.startsWith("/films") ? "{film}" : path.startsWith("/mpa") ? "{mpa}"
+                        : path.startsWith("/genres") ? "{genre}" : "{user}";
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement("/" + value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String replacePostmanVariables(String text, String folder) {
+        Matcher matcher = POSTMAN_VARIABLE.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String value;
+            if (name.contains("film")) {
+                value = "{film}";
+            } else if (name.equals("id") && folder.equalsIgnoreCase("MPA")) {
+                value = "{mpa}";
+            } else if (name.equals("id") && folder.equalsIgnoreCase("Genre")) {
+                value = "{genre}";
+            } else {
+                value = "{user}";
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.load;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Dataset;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator.Scale;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestMixTest {
+    private final Dataset dataset = new Dataset(Scale.ofLikes(1000), 42, 0, 0);
+
+    @Test
+    public void testPostmanCollectionResolvesAllVariables() throws IOException {
+        RequestMix mix = RequestMix.load("postman/sprint.json");
+
+        assertThat(mix.templates()).hasSize(41);
+        assertThat(mix.templates()).allSatisfy(template -> {
+            assertThat(template.path()).startsWith("/").doesNotContain("{{", "/:");
+            if (template.body() != null) {
+                assertThat(template.body()).doesNotContain("{{");
+            }
+        });
+    }
+
+    @Test
+    public void testPlaceholdersAreReplacedWithExistingIds() throws IOException {
+        RequestMix mix = RequestMix.load("classpath:load/read-mix.jsonl");
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 1000; i++) {
+            RequestMix.Request request = mix.next(random, dataset);
+            assertThat(request.path()).doesNotContain("{", "}");
+            for (String id : request.path().replaceAll("[^0-9]+", " ").trim().split(" ")) {
+                if (!id.isEmpty() && !request.path().contains("count=")) {
+                    assertThat(Long.parseLong(id)).isBetween(1L, (long) dataset.films());
+                }
+            }
+        }
+    }
+}
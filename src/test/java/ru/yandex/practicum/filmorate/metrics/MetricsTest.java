@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.filmorate.repository=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testSqlStatementsAreCountedPerRequest() throws Exception {
+        mvc.perform(get("/users/1")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/users/{id}")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isPositive();
+    }
+
+    @Test
+    public void testRepositoryAndServiceMethodsAreTimed() throws Exception {
+        mvc.perform(get("/users/1/friends")).andExpect(status().isOk());
+
+        Timer repository = meterRegistry.get("filmorate.repository")
+                .tag("class", "ru.yandex.practicum.filmorate.dao.jdbc.JdbcFriendRepository")
+                .tag("exception", "none")
+                .timer();
+        Timer service = meterRegistry.get("filmorate.service")
+                .tag("class", "ru.yandex.practicum.filmorate.service.FriendService")
+                .timer();
+        assertThat(repository.count()).isPositive();
+        assertThat(service.count()).isPositive();
+    }
+
+    @Test
+    public void testPrometheusEndpointPublishesHistograms() throws Exception {
+        mvc.perform(get("/films/1")).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("filmorate_repository_seconds_bucket")))
+                .andExpect(content().string(containsString("filmorate_http_sql_statements_count")));
+    }
+}
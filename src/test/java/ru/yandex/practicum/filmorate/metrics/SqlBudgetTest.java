@@ -0,0 +1,183 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import ru.yandex.practicum.filmorate.annotation.SqlBudget;
+import ru.yandex.practicum.filmorate.dao.EventBatchWriter;
+import ru.yandex.practicum.filmorate.dao.EventFeedBuffer;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
+import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository.NewEvent;
+import ru.yandex.practicum.filmorate.dao.interfaces.UserRepository;
+import ru.yandex.practicum.filmorate.exception.SqlBudgetExceededException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Точное число SQL-запросов на эндпоинт. Если тест упал из-за выросшего счёта, сначала стоит
+ * проверить, не появился ли запрос на каждую строку ответа, и только потом править ожидание и {@link SqlBudget}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SqlBudgetTest {
+    private static final String FILM = """
+            {"name": "Film", "description": "Description", "releaseDate": "2000-01-01", "duration": 100,
+             "mpa": {"id": 1}, "genres": [{"id": 1}, {"id": 2}], "directors": [{"id": 1}]}""";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EventBatchWriter eventBatchWriter;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventFeedBuffer eventFeedBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testFilmReadStatements() throws Exception {
+        assertThat(statements(get("/films"))).isEqualTo(1);
+        assertThat(statements(get("/films").param("limit", "10"))).isEqualTo(1);
+        assertThat(statements(get("/films/1"))).isEqualTo(1);
+        assertThat(statements(get("/films/popular"))).isEqualTo(1);
+        assertThat(statements(get("/films/popular").param("genreId", "1"))).isEqualTo(1);
+        assertThat(statements(get("/films/popular").param("limit", "10"))).isEqualTo(1);
+        assertThat(statements(get("/films/search").param("query", "film").param("by", "director,title")))
+                .isEqualTo(1);
+        assertThat(statements(get("/films/common").param("userId", "1").param("friendId", "2"))).isEqualTo(1);
+        assertThat(statements(get("/films/director/1").param("sortBy", "likes"))).isEqualTo(2);
+    }
+
+    @Test
+    public void testUserReadStatements() throws Exception {
+        assertThat(statements(get("/users"))).isEqualTo(1);
+        assertThat(statements(get("/users/1"))).isEqualTo(1);
+        assertThat(statements(get("/users/1/friends"))).isEqualTo(2);
+        assertThat(statements(get("/users/1/friends/common/2"))).isEqualTo(3);
+        assertThat(statements(get("/users/1/feed"))).isEqualTo(2);
+        assertThat(statements(get("/users/1/feed/friends"))).isEqualTo(3);
+        assertThat(statements(get("/users/1/recommendations"))).isEqualTo(2);
+        assertThat(statements(get("/users/1/recommendations").param("mode", "exact"))).isEqualTo(2);
+    }
+
+    @Test
+    public void testFeedLongerThanBufferStatements() throws Exception {
+        Long userId = userRepository.createUser(User.builder().email("feed@example.com").login("feed")
+                .name("Feed").birthday(LocalDate.of(1990, 1, 1)).build()).getId();
+        List<NewEvent> events = new ArrayList<>();
+        for (long i = 0; i <= eventFeedBuffer.getCapacity(); i++) {
+            events.add(new NewEvent(userId, i, 1L, 2L));
+        }
+        eventRepository.addEvents(events, LocalDateTime.now());
+        eventFeedBuffer.removeUser(userId);
+
+        // проверка пользователя, подъём холодного буфера и дочитывание истории старше буфера
+        assertThat(statements(get("/users/" + userId + "/feed"))).isEqualTo(3);
+    }
+
+    @Test
+    public void testReferenceDataIsServedFromCache() throws Exception {
+        assertThat(statements(get("/genres"))).isZero();
+        assertThat(statements(get("/mpa/1"))).isZero();
+        assertThat(statements(get("/directors"))).isEqualTo(1);
+    }
+
+    @Test
+    public void testWriteStatements() throws Exception {
+        assertThat(statements(post("/films").contentType("application/json").content(FILM))).isEqualTo(6);
+        assertThat(statements(put("/films").contentType("application/json").content(FILM.replace("{\"name\"",
+                "{\"id\": 1, \"name\"")))).isEqualTo(7);
+        assertThat(statements(put("/films/2/like/3"))).isEqualTo(4);
+        assertThat(statements(put("/users/3/friends/1"))).isEqualTo(4);
+        assertThat(statements(post("/reviews").contentType("application/json").content("""
+                {"content": "Отзыв", "isPositive": true, "userId": 1, "filmId": 1}"""))).isEqualTo(3);
+    }
+
+    @Test
+    public void testStatementsDoNotGrowWithRows() throws Exception {
+        int films = statements(get("/films"));
+        int popular = statements(get("/films/popular"));
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/films").contentType("application/json").content(FILM)).andExpect(status().isOk());
+        }
+
+        assertThat(statements(get("/films"))).isEqualTo(films);
+        assertThat(statements(get("/films/popular"))).isEqualTo(popular);
+    }
+
+    @Test
+    public void testFailModeStopsStatementsOverBudget() throws Exception {
+        SqlBudgetInterceptor interceptor = new SqlBudgetInterceptor("fail", 10);
+        HandlerMethod handler = new HandlerMethod(this, getClass().getDeclaredMethod("budgetOfOne"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/budget");
+        SqlStatementCounter.start();
+        try {
+            interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+            SqlStatementCounter.increment();
+
+            assertThatThrownBy(SqlStatementCounter::increment)
+                    .isInstanceOf(SqlBudgetExceededException.class)
+                    .hasMessageContaining("GET /budget");
+        } finally {
+            SqlStatementCounter.stop();
+        }
+    }
+
+    @Test
+    public void testEventWriterFlushIsNotCharged() {
+        SqlStatementCounter.start();
+        try {
+            SqlStatementCounter.enforce(0, "GET /users/3/feed");
+            eventBatchWriter.enqueue(new NewEvent(3L, 100L, 1L, 2L));
+            eventBatchWriter.flush();
+
+            assertThat(SqlStatementCounter.current()).isZero();
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        // запись не прервана бюджетом: событие уже в базе, а не ждёт повтора
+        assertThat(eventRepository.getEventListByUserId(3L)).extracting(Event::getEntityId).contains(100L);
+    }
+
+    @SqlBudget(1)
+    private void budgetOfOne() {
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        SqlStatementCounter.start();
+        try {
+            mvc.perform(request).andExpect(status().isOk());
+            return SqlStatementCounter.current();
+        } finally {
+            SqlStatementCounter.stop();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorCodecTest {
+
+    @Test
+    void testRoundTrip() {
+        String cursor = CursorCodec.encode(-3, 42);
+
+        assertThat(CursorCodec.decode(cursor, 2)).containsExactly(-3, 42);
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> CursorCodec.decode("не курсор", 1));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(CursorCodec.encode(1, 2), 1));
+        assertThrows(ValidationException.class, () -> CursorCodec.validateLimit(0));
+    }
+
+    @Test
+    void testIntKeyOutOfRangeIsRejected() {
+        String cursor = CursorCodec.encode(Integer.MAX_VALUE + 1L, 1);
+        long[] keys = CursorCodec.decode(cursor, 2);
+
+        assertThrows(ValidationException.class, () -> CursorCodec.intKey(keys[0], cursor));
+        assertThat(CursorCodec.intKey(Integer.MIN_VALUE, cursor)).isEqualTo(Integer.MIN_VALUE);
+    }
+}
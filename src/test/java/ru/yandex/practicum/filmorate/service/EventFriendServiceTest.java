@@ -5,7 +5,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.yandex.practicum.filmorate.dao.interfaces.EventRepository;
 import ru.yandex.practicum.filmorate.dao.interfaces.FriendRepository;
 
 
@@ -17,7 +16,7 @@ class EventFriendServiceTest {
     @Mock
     private FriendRepository friendRepository;
     @Mock
-    private EventRepository eventRepository;
+    private EventService eventService;
     @Mock
     private ValidationService validationService; // требуется для работы тестов.
 
@@ -33,7 +32,7 @@ class EventFriendServiceTest {
         friendService.addFriend(userId, friendId);
 
         verify(friendRepository, times(1)).addFriend(userId, friendId);
-        verify(eventRepository, times(1)).addEvent(userId, friendId, 3L, 2L);
+        verify(eventService, times(1)).addEvent(userId, friendId, 3L, 2L);
     }
 
     @Test
@@ -45,6 +44,6 @@ class EventFriendServiceTest {
         friendService.removeFriend(userId, friendId);
 
         verify(friendRepository, times(1)).removeFriend(userId, friendId);
-        verify(eventRepository, times(1)).addEvent(userId, friendId, 3L, 1L);
+        verify(eventService, times(1)).addEvent(userId, friendId, 3L, 1L);
     }
 }
@@ -6,6 +6,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.yandex.practicum.filmorate.dao.interfaces.LikeRepository;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationCache;
+import ru.yandex.practicum.filmorate.index.RecommendationEngine;
 
 import static org.mockito.Mockito.*;
 
@@ -18,6 +21,12 @@ public class EventLikeServiceTest {
     private EventService eventService;
     @Mock
     private ValidationService validationService; // требуется для работы тестов.
+    @Mock
+    private PopularityIndex popularityIndex;
+    @Mock
+    private RecommendationEngine recommendationEngine;
+    @Mock
+    private RecommendationCache recommendationCache;
 
     @InjectMocks
     private LikeService likeService;
@@ -27,10 +36,13 @@ public class EventLikeServiceTest {
         Long filmId = 1L;
         Long userId = 2L;
 
-        doNothing().when(likeRepository).addLike(filmId, userId);
+        when(likeRepository.addLike(filmId, userId)).thenReturn(true);
         likeService.addLike(filmId, userId);
 
         verify(likeRepository, times(1)).addLike(filmId, userId);
+        verify(popularityIndex, times(1)).likeAdded(filmId);
+        verify(recommendationEngine, times(1)).likeAdded(userId, filmId);
+        verify(recommendationCache, times(1)).likeChanged(userId, filmId);
         verify(eventService, times(1)).addEvent(userId, filmId, 1L, 2L);
     }
 
@@ -39,10 +51,13 @@ public class EventLikeServiceTest {
         Long filmId = 1L;
         Long userId = 2L;
 
-        doNothing().when(likeRepository).removeLike(filmId, userId);
+        when(likeRepository.removeLike(filmId, userId)).thenReturn(true);
         likeService.removeLike(filmId, userId);
 
         verify(likeRepository, times(1)).removeLike(filmId, userId);
+        verify(popularityIndex, times(1)).likeRemoved(filmId);
+        verify(recommendationEngine, times(1)).likeRemoved(userId, filmId);
+        verify(recommendationCache, times(1)).likeChanged(userId, filmId);
         verify(eventService, times(1)).addEvent(userId, filmId, 1L, 1L);
     }
 }
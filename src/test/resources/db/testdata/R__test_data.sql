@@ -13,6 +13,17 @@ MERGE INTO genres (genre_id, name) VALUES
 (5, 'Документальный'),
 (6, 'Боевик');
 
+MERGE INTO event_type (type_id, event_type) VALUES
+(1, 'LIKE'),
+(2, 'REVIEW'),
+(3, 'FRIEND'),
+(4, 'FEEDBACK');
+
+MERGE INTO event_operation (operation_id, operation_type) VALUES
+(1, 'REMOVE'),
+(2, 'ADD'),
+(3, 'UPDATE');
+
 MERGE INTO directors (director_id, name) VALUES
 (1, 'Квентин Тарантино'),
 (2, 'Кристофер Нолан'),
@@ -39,9 +50,11 @@ MERGE INTO friends (user_id, friend_id, confirmed) VALUES
 (1, 3, TRUE),
 (2, 3, TRUE);
 
+-- у пользователей 1 и 2 общий лайк фильма 1, поэтому пользователю 1 рекомендуется фильм 2
 MERGE INTO likes (film_id, user_id) VALUES
 (1, 1),
-(1, 2);
+(1, 2),
+(2, 2);
 
 MERGE INTO film_genre (film_id, genre_id) VALUES
 (1, 1),
@@ -49,4 +62,6 @@ MERGE INTO film_genre (film_id, genre_id) VALUES
 
 MERGE INTO film_directors (film_id, director_id) VALUES
 (1, 1),
-(2, 2);
\ No newline at end of file
+(2, 2);
+
+UPDATE films f SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.film_id = f.film_id);